@@ -0,0 +1,131 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tab completion with {@link CommandCompleter} against an executor with a few dozen commands, and storing commands in
+ * {@link CommandHistory}.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS) @Warmup(iterations = 5, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1) @State(Scope.Thread) public class CompletionBenchmark {
+	@Param({"", "s", "spawn", "setZ"}) public String prefix;
+
+	private HeadlessConsole console;
+	private CommandCompleter completer;
+	private CommandHistory history;
+	private String[] historyCommands;
+	private int historyIndex;
+
+	@Setup public void setup () {
+		console = new HeadlessConsole();
+		console.setLoggingToSystem(false);
+		console.setCommandExecutor(new ManyCommands());
+		completer = new CommandCompleter();
+		history = new CommandHistory();
+		historyCommands = new String[64];
+		for (int i = 0; i < historyCommands.length; i++) {
+			historyCommands[i] = "spawn orc " + i;
+		}
+	}
+
+	@TearDown public void tearDown () {
+		console.dispose();
+	}
+
+	@Benchmark public CommandCompleter set () {
+		completer.set(console.commands, console, prefix);
+		return completer;
+	}
+
+	@Benchmark public String setAndCycle () {
+		completer.set(console.commands, console, prefix);
+		String last = null;
+		for (int i = 0; i < 8; i++) {
+			last = completer.next();
+		}
+		return last;
+	}
+
+	@Benchmark public CommandHistory store () {
+		history.store(historyCommands[historyIndex++ & 63]);
+		return history;
+	}
+
+	public static class ManyCommands extends CommandExecutor {
+		public void spawn (String type) {
+		}
+
+		public void spawn (String type, int count) {
+		}
+
+		public void spawnBoss () {
+		}
+
+		public void spawnWave (int wave) {
+		}
+
+		public void setX (float x) {
+		}
+
+		public void setY (float y) {
+		}
+
+		public void setZoom (float zoom) {
+		}
+
+		public void setSpeed (float speed) {
+		}
+
+		public void setGravity (float gravity) {
+		}
+
+		public void setTime (int hour) {
+		}
+
+		public void save () {
+		}
+
+		public void saveAs (String name) {
+		}
+
+		public void load (String name) {
+		}
+
+		public void kill () {
+		}
+
+		public void killAll () {
+		}
+
+		public void heal () {
+		}
+
+		public void give (String item, int count) {
+		}
+
+		public void god () {
+		}
+
+		public void noclip () {
+		}
+
+		public void teleport (float x, float y) {
+		}
+
+		public void quit () {
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package com.strongjoshua.console;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link ConsoleUtils#exceptionToString(Throwable)} for exceptions with shallow and deep stack traces and a cause.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MICROSECONDS) @Warmup(iterations = 5, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1) @State(Scope.Thread) public class ExceptionToStringBenchmark {
+	@Param({"1", "50"}) public int depth;
+
+	private Throwable exception;
+
+	@Setup public void setup () {
+		exception = new RuntimeException("Command failed", create(depth));
+	}
+
+	private static Throwable create (int depth) {
+		if (depth <= 1) {
+			return new IllegalStateException("Nothing to see here");
+		}
+		return create(depth - 1);
+	}
+
+	@Benchmark public String exceptionToString () {
+		return ConsoleUtils.exceptionToString(exception);
+	}
+}
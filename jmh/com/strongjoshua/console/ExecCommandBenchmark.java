@@ -0,0 +1,76 @@
+package com.strongjoshua.console;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch cost of {@link AbstractConsole#execCommand(String)}: tokenizing, looking up the command, converting the arguments and
+ * invoking it. Each call adds the echo of the command as a new entry, as collapsing repeats is disabled, and evicts the oldest one,
+ * whose entry is reused; the log is capped directly, because a headless console ignores {@link Console#setMaxEntries(int)}.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS) @Warmup(iterations = 5, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1) @State(Scope.Thread) public class ExecCommandBenchmark {
+	@Param({"noArgs", "oneArg 42", "threeArgs 1 2.5 text", "overloaded 1 2", "overloaded 1 2.5", "quoted \"two words\"",
+		"noArgs; oneArg 1; noArgs"}) public String command;
+
+	private HeadlessConsole console;
+	private BenchExecutor executor;
+
+	@Setup public void setup () {
+		console = new HeadlessConsole();
+		console.log.setMaxEntries(64);
+		console.setLoggingToSystem(false);
+		console.setCollapseRepeats(false);
+		executor = new BenchExecutor();
+		console.setCommandExecutor(executor);
+	}
+
+	@TearDown public void tearDown () {
+		console.dispose();
+	}
+
+	@Benchmark public void execCommand (Blackhole blackhole) {
+		console.execCommand(command);
+		blackhole.consume(executor.sink);
+	}
+
+	public static class BenchExecutor extends CommandExecutor {
+		public Object sink;
+
+		public void noArgs () {
+			sink = this;
+		}
+
+		public void oneArg (int a) {
+			sink = a;
+		}
+
+		public void threeArgs (int a, float b, String c) {
+			sink = c;
+		}
+
+		public void overloaded (int a, int b) {
+			sink = a + b;
+		}
+
+		public void overloaded (int a, float b) {
+			sink = a + b;
+		}
+
+		public void quoted (String text) {
+			sink = text;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.GL20;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame cost of {@link GUIConsole} on the headless backend: a frame that logs one entry, a frame that logs many, and a full
+ * {@link GUIConsole#refresh()}. GL calls go to a stub that accepts every shader, so only the console's own work is measured.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MICROSECONDS) @Warmup(iterations = 5, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1) @State(Scope.Thread) public class GUIConsoleBenchmark {
+	@Param({"1000", "100000"}) public int entries;
+
+	private HeadlessApplication app;
+	private GUIConsole console;
+	// distinct texts, so consecutive entries are never repeats of each other
+	private final String[] messages = new String[1024];
+	private int next;
+
+	@Setup public void setup () {
+		app = new HeadlessApplication(new ApplicationAdapter() {
+		});
+		Gdx.gl = Gdx.gl20 = stubGL();
+		console = new GUIConsole();
+		console.setMaxEntries(Console.UNLIMITED_ENTRIES);
+		console.setVisible(true);
+		for (int i = 0; i < entries; i++) {
+			console.log("Entry number " + i + " with enough text after it to wrap in a narrow console window", LogLevel.DEFAULT);
+		}
+		console.draw();
+		for (int i = 0; i < messages.length; i++) {
+			messages[i] = "One more entry, number " + i;
+		}
+	}
+
+	private String nextMessage () {
+		return messages[next++ & messages.length - 1];
+	}
+
+	@TearDown public void tearDown () {
+		console.dispose();
+		app.exit();
+	}
+
+	@Benchmark public GUIConsole logAndDraw () {
+		console.log(nextMessage(), LogLevel.DEFAULT);
+		console.draw();
+		return console;
+	}
+
+	@Benchmark public GUIConsole log100AndDraw () {
+		for (int i = 0; i < 100; i++) {
+			console.log(nextMessage(), LogLevel.DEFAULT);
+		}
+		console.draw();
+		return console;
+	}
+
+	@Benchmark public GUIConsole refresh () {
+		console.refresh();
+		console.draw();
+		return console;
+	}
+
+	private static GL20 stubGL () {
+		return (GL20)Proxy.newProxyInstance(GUIConsoleBenchmark.class.getClassLoader(), new Class<?>[] {GL20.class},
+			new InvocationHandler() {
+				@Override public Object invoke (Object proxy, Method method, Object[] args) {
+					String name = method.getName();
+					if ((name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) && args[2] instanceof IntBuffer) {
+						((IntBuffer)args[2]).put(0, 1);
+					}
+					Class<?> type = method.getReturnType();
+					if (type == int.class) {
+						return name.startsWith("glCreate") || name.startsWith("glGen") ? 1 : 0;
+					}
+					if (type == boolean.class) {
+						return false;
+					}
+					if (type == String.class) {
+						return "";
+					}
+					return null;
+				}
+			});
+	}
+}
@@ -0,0 +1,56 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+import com.strongjoshua.console.CommandRegistry.Command;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of invoking a bound command through libGDX reflection and through the {@link CommandInvoker} that {@link CommandRegistry}
+ * picks by default, without tokenizing or converting arguments.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS) @Warmup(iterations = 5, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1) @State(Scope.Thread) public class InvokerBenchmark {
+	@Param({"reflection", "default"}) public String invoker;
+
+	private BenchExecutor executor;
+	private Command command;
+	private Object[] args;
+	private int next;
+
+	@Setup public void setup () {
+		executor = new BenchExecutor();
+		CommandRegistry registry = new CommandRegistry();
+		if (invoker.equals("reflection")) {
+			registry.setInvokerFactory(ReflectionInvoker.FACTORY);
+		}
+		registry.build(executor);
+		command = registry.get("add").get(2).first();
+		args = new Object[] {1, 2f};
+	}
+
+	@Benchmark public float invoke () throws ReflectionException {
+		// a different boxed value each call, so the call cannot be folded away
+		args[0] = next++ & 127;
+		command.invoke(executor, args);
+		return executor.sum;
+	}
+
+	public static class BenchExecutor extends CommandExecutor {
+		public float sum;
+
+		public void add (int a, float b) {
+			sum += a + b;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.files.FileHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of adding entries to a {@link Log}, capped and unlimited, and of exporting it with {@link Log#printToFile(FileHandle)}.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS) @Warmup(iterations = 5, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1) public class LogBenchmark {
+	@State(Scope.Thread) public static class AddState {
+		@Param({"100", "10000", "-1"}) public int maxEntries;
+
+		Log log;
+		// distinct texts, so consecutive entries are never repeats of each other
+		final String[] messages = new String[1024];
+		int next;
+
+		@Setup public void setupMessages () {
+			for (int i = 0; i < messages.length; i++) {
+				messages[i] = "Entry " + i + " with a bit of text";
+			}
+		}
+
+		// an unlimited log is recreated every iteration so it does not grow for the whole run
+		@Setup(Level.Iteration) public void setup () {
+			log = new Log();
+			log.setMaxEntries(maxEntries);
+		}
+
+		String nextMessage () {
+			return messages[next++ & messages.length - 1];
+		}
+	}
+
+	@State(Scope.Thread) public static class PrintState {
+		@Param({"1000", "100000"}) public int entries;
+
+		Log log;
+		FileHandle file;
+
+		@Setup public void setup () throws IOException {
+			log = new Log();
+			log.setMaxEntries(Console.UNLIMITED_ENTRIES);
+			for (int i = 0; i < entries; i++) {
+				log.addEntry("Entry number " + i + " with a bit of text after it", LogLevel.values()[i % 4]);
+			}
+			File temp = File.createTempFile("console-log", ".txt");
+			temp.deleteOnExit();
+			file = new FileHandle(temp);
+		}
+
+		@TearDown public void tearDown () {
+			file.delete();
+		}
+	}
+
+	@Benchmark public Log addEntry (AddState state) {
+		state.log.addEntry(state.nextMessage(), LogLevel.DEFAULT);
+		return state.log;
+	}
+
+	@Benchmark @OutputTimeUnit(TimeUnit.MICROSECONDS) public boolean printToFile (PrintState state) {
+		return state.log.printToFile(state.file);
+	}
+}
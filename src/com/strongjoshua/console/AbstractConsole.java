@@ -20,20 +20,38 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.scenes.scene2d.ui.Window;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
-import com.badlogic.gdx.utils.reflect.Annotation;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Queue;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncTask;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
-import com.badlogic.gdx.utils.reflect.Method;
 import com.badlogic.gdx.utils.reflect.ReflectionException;
+import com.strongjoshua.console.CommandRegistry.Command;
+import com.strongjoshua.console.CommandMetrics.CommandStats;
+import com.strongjoshua.console.CommandRegistry.CommandGroup;
+import com.strongjoshua.console.CommandScript.Step;
+import com.strongjoshua.console.annotation.AsyncCommand;
 import com.strongjoshua.console.annotation.ConsoleDoc;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Eric
  */
 public abstract class AbstractConsole implements Console, Disposable {
+	private static final int LOG_QUEUE_CAPACITY = 8192;
+
 	protected final Log log;
+	protected final LogQueue logQueue;
+	protected final OwnerThread ownerThread;
+	protected final CommandRegistry commands;
 	protected CommandExecutor exec;
 	protected boolean logToSystem;
 
@@ -42,27 +60,257 @@ public abstract class AbstractConsole implements Console, Disposable {
 	protected boolean executeHiddenCommands = true;
 	protected boolean displayHiddenCommands = false;
 	protected boolean consoleTrace = false;
+	protected boolean printLogInBackground = false;
+	protected int logDrainLimit = UNLIMITED_ENTRIES;
+
+	private final Array<CommandTokenizer> tokenizers = new Array<CommandTokenizer>();
+	private final Array<CommandGroup> helpGroups = new Array<CommandGroup>();
+	private int execDepth;
+	// set when resolveCommand fails
+	private String resolveError;
+
+	private final ObjectMap<String, CommandScript> scripts = new ObjectMap<String, CommandScript>();
+	private final Array<String> runningScripts = new Array<String>();
+	// tokenizes scripts and aliases while they are resolved
+	private final CommandTokenizer compileTokens = new CommandTokenizer();
+
+	private final CommandTrie<CommandAlias> aliases = new CommandTrie<CommandAlias>();
+	// changes whenever an alias is defined or removed, so cached scripts resolve their aliases again
+	private int aliasVersion;
+
+	private AsyncExecutor asyncExecutor;
+	private final AtomicInteger pendingCommands = new AtomicInteger();
+	private volatile CommandMetrics metrics;
+
+	private long commandFrameBudget;
+	private final Queue<QueuedCommand> commandQueue = new Queue<QueuedCommand>();
+	private final Pool<QueuedCommand> queuedCommandPool = new Pool<QueuedCommand>() {
+		@Override protected QueuedCommand newObject () {
+			return new QueuedCommand();
+		}
+	};
+	private boolean runningQueue;
+	private long spilledCommands;
+	// receives the entries logged by the command that is running, if it was given one
+	private LogSink commandOutput;
+	// true while the owning thread adds an entry it logged itself, as opposed to one drained from the queue
+	private boolean addingOwnEntry;
+
+	// copied on write, so entries can be added while sinks are added or removed
+	private volatile LogSink[] sinks = new LogSink[0];
+
+	/** Sequence numbers of the entries matched by the last {@link #find(String)}. */
+	protected final LongArray findResults = new LongArray();
+
+	private final StringBuilder formatBuffer = new StringBuilder();
+	private boolean formatting;
 
 	public AbstractConsole () {
 		log = new Log();
+		logQueue = new LogQueue(LOG_QUEUE_CAPACITY);
+		ownerThread = OwnerThread.create();
+		commands = new CommandRegistry();
 	}
 
 	@Override public void setLoggingToSystem (Boolean log) {
 		this.logToSystem = log;
 	}
 
+	/**
+	 * Safe to call from any thread. On the thread that created the console the entry is added right away, after the entries queued
+	 * before it, so it is never dropped; from other threads it is queued and added by {@link #drainLogQueue(int)}.
+	 */
 	@Override public void log (String msg, LogLevel level) {
-		log.addEntry(msg, level);
+		if (!isLoggable(level)) {
+			return;
+		}
+		if (ownerThread.isCurrent()) {
+			addOwnEntry(msg, level);
+		} else if (logQueue.offer(msg, level)) {
+			logQueued();
+		}
+	}
 
-		if (logToSystem) {
-			switch (level) {
-			case ERROR:
-				System.err.println("> " + msg);
-				break;
-			default:
-				System.out.println("> " + msg);
+	/**
+	 * Adds an entry logged on the owning thread, first adding the queued entries so the log keeps the order they were logged in.
+	 */
+	private void addOwnEntry (CharSequence msg, LogLevel level) {
+		boolean wasAddingOwnEntry = addingOwnEntry;
+		addingOwnEntry = false;
+		if (!logQueue.isEmpty()) {
+			drainLogQueue(UNLIMITED_ENTRIES);
+		}
+		addingOwnEntry = true;
+		try {
+			addEntry(msg, level);
+		} finally {
+			addingOwnEntry = wasAddingOwnEntry;
+		}
+	}
+
+	/**
+	 * @return False if an entry of the given level would be dropped, so the message need not be built. Disabled consoles still
+	 * log, like every way of logging does.
+	 */
+	protected boolean isLoggable (LogLevel level) {
+		return log.accepts(level);
+	}
+
+	@Override public void setMinLogLevel (LogLevel level) {
+		log.setMinLevel(level);
+	}
+
+	@Override public void setLogLevelDisplayed (LogLevel level, boolean displayed) {
+	}
+
+	@Override public boolean isLogLevelDisplayed (LogLevel level) {
+		return true;
+	}
+
+	@Override public void log (LogLevel level, String pattern, Object arg) {
+		if (!isLoggable(level)) {
+			return;
+		}
+		StringBuilder out = obtainFormatBuffer();
+		try {
+			ConsoleUtils.format(out, pattern, arg, null, null, 1);
+			logFormatted(out, level);
+		} finally {
+			releaseFormatBuffer(out);
+		}
+	}
+
+	@Override public void log (LogLevel level, String pattern, Object arg1, Object arg2) {
+		if (!isLoggable(level)) {
+			return;
+		}
+		StringBuilder out = obtainFormatBuffer();
+		try {
+			ConsoleUtils.format(out, pattern, arg1, arg2, null, 2);
+			logFormatted(out, level);
+		} finally {
+			releaseFormatBuffer(out);
+		}
+	}
+
+	@Override public void log (LogLevel level, String pattern, Object... args) {
+		if (!isLoggable(level)) {
+			return;
+		}
+		StringBuilder out = obtainFormatBuffer();
+		try {
+			// a null array is passed for a single null argument cast to Object[], treat it as no arguments
+			ConsoleUtils.format(out, pattern, null, null, args, args == null ? 0 : args.length);
+			logFormatted(out, level);
+		} finally {
+			releaseFormatBuffer(out);
+		}
+	}
+
+	@Override public void log (LogLevel level, LogMessage message) {
+		if (!isLoggable(level)) {
+			return;
+		}
+		StringBuilder out = obtainFormatBuffer();
+		try {
+			message.write(out);
+			logFormatted(out, level);
+		} finally {
+			releaseFormatBuffer(out);
+		}
+	}
+
+	/**
+	 * @return The shared buffer on the owning thread, unless it is already in use by a message that logs while being formatted,
+	 * otherwise a new one.
+	 */
+	private StringBuilder obtainFormatBuffer () {
+		if (formatting || !ownerThread.isCurrent()) {
+			return new StringBuilder();
+		}
+		formatting = true;
+		formatBuffer.setLength(0);
+		return formatBuffer;
+	}
+
+	private void releaseFormatBuffer (StringBuilder out) {
+		if (out == formatBuffer) {
+			formatting = false;
+		}
+	}
+
+	private void logFormatted (StringBuilder out, LogLevel level) {
+		if (out == formatBuffer) {
+			// the entry copies the text, so the buffer can be reused right away
+			addOwnEntry(out, level);
+		} else {
+			log(out.toString(), level);
+		}
+	}
+
+	/**
+	 * Called after an entry was queued from a thread other than the owning one. Must not block.
+	 */
+	protected void logQueued () {
+	}
+
+	/**
+	 * Adds queued entries to the log. Must only be called from one thread at a time, normally the render thread. Logging on the
+	 * owning thread also calls it while entries are queued.
+	 *
+	 * @param limit Maximum number of entries to add, or {@link Console#UNLIMITED_ENTRIES}.
+	 * @return The number of entries added.
+	 */
+	protected int drainLogQueue (int limit) {
+		int drained = 0;
+		while (limit == UNLIMITED_ENTRIES || drained < limit) {
+			LogQueue.Node node = logQueue.poll();
+			if (node == null) {
 				break;
 			}
+			addEntry(node.getMessage(), node.getLevel());
+			drained++;
+		}
+		int dropped = logQueue.takeDropped();
+		if (dropped > 0) {
+			addEntry(dropped + " log entries were dropped because too many were logged from other threads.", LogLevel.ERROR);
+		}
+		return drained;
+	}
+
+	/**
+	 * Adds an entry to the log and prints it to the system if enabled. Only called on the thread that consumes the log.
+	 */
+	protected void addEntry (CharSequence msg, LogLevel level) {
+		LogEntry entry = log.addEntry(msg, level);
+		if (entry == null) {
+			return;
+		}
+		for (LogSink sink : sinks) {
+			sink.write(entry);
+		}
+		// only entries the running command logged itself are its output, not those of other threads drained meanwhile or added
+		// by a consumer thread
+		if (ownerThread.isCurrent() && addingOwnEntry && commandOutput != null) {
+			commandOutput.write(entry);
+		}
+
+		if (logToSystem) {
+			printToSystem(msg, level);
+		}
+	}
+
+	/**
+	 * Prints an entry to {@link System#out}, or {@link System#err} for errors, when logging to the system is enabled.
+	 */
+	protected void printToSystem (CharSequence msg, LogLevel level) {
+		switch (level) {
+		case ERROR:
+			System.err.println("> " + msg);
+			break;
+		default:
+			System.out.println("> " + msg);
+			break;
 		}
 	}
 
@@ -71,6 +319,9 @@ public abstract class AbstractConsole implements Console, Disposable {
 	}
 
 	@Override public void log (Throwable exception, LogLevel level) {
+		if (!isLoggable(level)) {
+			return;
+		}
 		this.log(ConsoleUtils.exceptionToString(exception), level);
 	}
 
@@ -78,18 +329,92 @@ public abstract class AbstractConsole implements Console, Disposable {
 		this.log(exception, LogLevel.ERROR);
 	}
 
+	@Override public void setLogIndexEnabled (boolean enabled) {
+		log.setIndexCapacity(enabled ? LogIndex.DEFAULT_MAX_POSTINGS : 0);
+	}
+
+	@Override public void setLogCompressionEnabled (boolean enabled) {
+		log.setCompressionEnabled(enabled);
+	}
+
+	@Override public void setCollapseRepeats (boolean collapse) {
+		log.setCollapseRepeats(collapse);
+	}
+
+	@Override public int find (String query) {
+		log.find(query, findResults);
+		// the echo of a find command would always match itself
+		long oldest = log.getAddedCount() - log.size();
+		int kept = 0;
+		for (int i = 0; i < findResults.size; i++) {
+			long seq = findResults.get(i);
+			if (log.getLevel((int)(seq - oldest)) != LogLevel.COMMAND) {
+				findResults.set(kept++, seq);
+			}
+		}
+		findResults.size = kept;
+		return kept;
+	}
+
 	@Override public void printLogToFile (String file) {
 		this.printLogToFile(Gdx.files.local(file));
 	}
 
 	@Override public void printLogToFile (FileHandle fh) {
-		if (log.printToFile(fh)) {
+		printLogToFile(fh, false);
+	}
+
+	@Override public void printLogToFile (final FileHandle fh, final boolean expandRepeats) {
+		if (!printLogInBackground) {
+			logPrintResult(log.printToFile(fh, expandRepeats));
+			return;
+		}
+
+		if (fh.isDirectory()) {
+			throw new IllegalArgumentException("File cannot be a directory!");
+		}
+		final Log snapshot = log.snapshot();
+		getAsyncExecutor().submit(new AsyncTask<Void>() {
+			@Override public Void call () {
+				try {
+					logPrintResult(Log.printToFile(fh, snapshot, expandRepeats));
+				} finally {
+					snapshot.dispose();
+				}
+				return null;
+			}
+		});
+	}
+
+	private void logPrintResult (boolean success) {
+		if (success) {
 			log("Successfully wrote logs to file.", LogLevel.SUCCESS);
 		} else {
 			log("Unable to write logs to file.", LogLevel.ERROR);
 		}
 	}
 
+	@Override public void setPrintLogInBackground (boolean enabled) {
+		printLogInBackground = enabled;
+	}
+
+	@Override public void setLogDrainLimit (int limit) {
+		if (limit <= 0 && limit != UNLIMITED_ENTRIES) {
+			throw new IllegalArgumentException("Drain limit must be greater than 0 or use Console.UNLIMITED_ENTRIES.");
+		}
+		logDrainLimit = limit;
+	}
+
+	/**
+	 * @return The executor used for background work of this console, such as {@link AsyncCommand}s, created on first use.
+	 */
+	protected AsyncExecutor getAsyncExecutor () {
+		if (asyncExecutor == null) {
+			asyncExecutor = new AsyncExecutor(1);
+		}
+		return asyncExecutor;
+	}
+
 	@Override public boolean isDisabled () {
 		return disabled;
 	}
@@ -100,148 +425,608 @@ public abstract class AbstractConsole implements Console, Disposable {
 
 	@Override public void setCommandExecutor (CommandExecutor commandExec) {
 		exec = commandExec;
-		exec.setConsole(this);
+		if (exec != null) {
+			exec.setConsole(this);
+		}
+		commands.build(exec);
+	}
+
+	@Override public void registerArgumentConverter (Class<?> type, ArgumentConverter converter) {
+		commands.registerConverter(type, converter);
 	}
 
 	@Override public void execCommand (String command) {
+		execCommand(command, null);
+	}
+
+	@Override public void execCommand (String command, LogSink output) {
 		if (disabled)
 			return;
 
+		if (isQueueingCommands()) {
+			QueuedCommand queued = queuedCommandPool.obtain();
+			queued.line = command;
+			queued.output = output;
+			commandQueue.addLast(queued);
+			return;
+		}
+
+		LogSink previousOutput = commandOutput;
+		commandOutput = output;
+		try {
+			runCommandLine(command);
+		} finally {
+			commandOutput = previousOutput;
+		}
+	}
+
+	/**
+	 * @return True if a command submitted now must wait in the queue for {@link #runQueuedCommands()}.
+	 */
+	private boolean isQueueingCommands () {
+		// commands run by queued or other commands run right away, in order
+		return commandFrameBudget > 0 && execDepth == 0 && !runningQueue;
+	}
+
+	private void runCommandLine (String command) {
 		log(command, LogLevel.COMMAND);
 
-		String[] parts = command.split(" ");
-		String methodName = parts[0];
-		String[] sArgs = null;
-		if (parts.length > 1) {
-			sArgs = new String[parts.length - 1];
-			for (int i = 1; i < parts.length; i++) {
-				sArgs[i - 1] = parts[i];
+		// commands may execute other commands, so every nesting level needs its own tokenizer
+		if (tokenizers.size == execDepth) {
+			tokenizers.add(new CommandTokenizer());
+		}
+		CommandTokenizer tokens = tokenizers.get(execDepth);
+		if (!tokens.tokenize(command)) {
+			log(tokens.getError(), LogLevel.ERROR);
+			return;
+		}
+
+		execDepth++;
+		try {
+			for (int i = 0; i < tokens.getCommandCount(); i++) {
+				execCommand(tokens, i);
 			}
+		} finally {
+			execDepth--;
 		}
+	}
 
-		Class<? extends CommandExecutor> clazz = exec.getClass();
-		Method[] methods = ClassReflection.getMethods(clazz);
-		Array<Integer> possible = new Array<Integer>();
-		for (int i = 0; i < methods.length; i++) {
-			Method method = methods[i];
-			if (method.getName().equalsIgnoreCase(methodName) && ConsoleUtils.canExecuteCommand(this, method)) {
-				possible.add(i);
+	/**
+	 * Executes a single command of a tokenized line.
+	 *
+	 * @param tokens  The tokenized line.
+	 * @param command Index of the command in the line.
+	 */
+	protected void execCommand (CommandTokenizer tokens, int command) {
+		int nameToken = tokens.getCommandToken(command);
+		CommandAlias alias = aliases.get(tokens, tokens.getTokenStart(nameToken), tokens.getTokenEnd(nameToken));
+		if (alias != null && alias.defined) {
+			if (tokens.getArgumentCount(command) > 0) {
+				log(alias.name + " is an alias and takes no arguments.", LogLevel.ERROR);
+			} else {
+				runAlias(alias);
 			}
+			return;
+		}
+
+		int numArgs = tokens.getArgumentCount(command);
+		Object[] args = numArgs > 0 ? new Object[numArgs] : null;
+		Command m = resolveCommand(tokens, command, args);
+		if (m == null) {
+			log(resolveError, LogLevel.ERROR);
+		} else if (m.isAsync()) {
+			invokeAsync(m, args);
+		} else {
+			invoke(m, args);
+		}
+	}
+
+	/**
+	 * Finds the overload a command of a tokenized line calls and converts its arguments.
+	 *
+	 * @param args Receives the converted arguments.
+	 * @return The command, or null if there is none that accepts the arguments. The reason is then in resolveError.
+	 */
+	private Command resolveCommand (CommandTokenizer tokens, int command, Object[] args) {
+		int nameToken = tokens.getCommandToken(command);
+		CommandGroup group = commands.get(tokens, tokens.getTokenStart(nameToken), tokens.getTokenEnd(nameToken));
+		if (group == null || !ConsoleUtils.canExecuteCommand(this, group)) {
+			if (metrics != null) {
+				metrics.recordUnknownCommand();
+			}
+			resolveError = "No such method found.";
+			return null;
+		}
+
+		int numArgs = tokens.getArgumentCount(command);
+		Array<Command> possible = group.get(numArgs);
+		Command candidate = null;
+		int candidates = 0, badArgument = -1;
+		for (int i = 0; i < possible.size; i++) {
+			Command m = possible.get(i);
+			if (!ConsoleUtils.canExecuteCommand(this, m)) {
+				continue;
+			}
+			int failed = m.convertArguments(tokens, nameToken + 1, args);
+			if (failed >= 0) {
+				// try the next overload
+				candidate = m;
+				candidates++;
+				badArgument = failed;
+				continue;
+			}
+			return m;
+		}
+
+		if (metrics != null) {
+			metrics.recordBadParameters(group.getName());
+		}
+		if (candidates == 1) {
+			resolveError = "Bad parameter " + (badArgument + 1) + " \"" + tokens.getToken(nameToken + 1 + badArgument)
+				+ "\": expected " + ClassReflection.getSimpleName(candidate.getParameterTypes()[badArgument]) + ".";
+		} else {
+			resolveError = "Bad parameters. Check your code.";
+		}
+		return null;
+	}
+
+	@Override public void execScript (String file) {
+		execScript(Gdx.files.local(file));
+	}
+
+	@Override public void execScript (FileHandle file) {
+		if (disabled)
+			return;
+
+		String path = file.path();
+		if (runningScripts.contains(path, false)) {
+			log("Script " + path + " is already running.", LogLevel.ERROR);
+			return;
+		}
+		CommandScript script;
+		try {
+			script = loadScript(file, path);
+		} catch (GdxRuntimeException e) {
+			log("Unable to read script " + path + ".", LogLevel.ERROR);
+			return;
 		}
 
-		if (possible.size <= 0) {
-			log("No such method found.", LogLevel.ERROR);
+		QueuedCommand run = queuedCommandPool.obtain();
+		run.script = script;
+		if (isQueueingCommands()) {
+			commandQueue.addLast(run);
 			return;
 		}
+		while (!runScriptStep(run)) {
+		}
+		queuedCommandPool.free(run);
+	}
 
-		int size = possible.size;
-		int numArgs = sArgs == null ? 0 : sArgs.length;
-		for (int i = 0; i < size; i++) {
-			Method m = methods[possible.get(i)];
-			Class<?>[] params = m.getParameterTypes();
-			if (numArgs == params.length) {
-				try {
-					Object[] args = null;
-
-					try {
-						if (sArgs != null) {
-							args = new Object[numArgs];
-
-							for (int j = 0; j < params.length; j++) {
-								Class<?> param = params[j];
-								final String value = sArgs[j];
-
-								if (param.equals(String.class)) {
-									args[j] = value;
-								} else if (param.equals(Boolean.class) || param.equals(boolean.class)) {
-									args[j] = Boolean.parseBoolean(value);
-								} else if (param.equals(Byte.class) || param.equals(byte.class)) {
-									args[j] = Byte.parseByte(value);
-								} else if (param.equals(Short.class) || param.equals(short.class)) {
-									args[j] = Short.parseShort(value);
-								} else if (param.equals(Integer.class) || param.equals(int.class)) {
-									args[j] = Integer.parseInt(value);
-								} else if (param.equals(Long.class) || param.equals(long.class)) {
-									args[j] = Long.parseLong(value);
-								} else if (param.equals(Float.class) || param.equals(float.class)) {
-									args[j] = Float.parseFloat(value);
-								} else if (param.equals(Double.class) || param.equals(double.class)) {
-									args[j] = Double.parseDouble(value);
-								}
-							}
-						}
-					} catch (Exception e) {
-						// Error occurred trying to parse parameter, continue
-						// to next function
-						continue;
-					}
+	/**
+	 * Runs the next step of a script.
+	 *
+	 * @return True if the script has finished.
+	 */
+	private boolean runScriptStep (QueuedCommand run) {
+		CommandScript script = run.script;
+		if (run.step == 0) {
+			if (runningScripts.contains(script.path, false)) {
+				log("Script " + script.path + " is already running.", LogLevel.ERROR);
+				return true;
+			}
+			runningScripts.add(script.path);
+		}
+		boolean finished = true;
+		try {
+			if (run.step < script.steps.size) {
+				Step step = script.steps.get(run.step++);
+				if (step.line != run.echoedLine) {
+					log(step.text, LogLevel.COMMAND);
+					run.echoedLine = step.line;
+				}
+				if (!runStep(step, null)) {
+					run.errors++;
+				}
+			}
+			if (run.step < script.steps.size) {
+				finished = false;
+				return false;
+			}
+			int errors = run.errors;
+			if (errors > 0) {
+				log("Script " + script.path + " finished with " + errors + (errors == 1 ? " error." : " errors."), LogLevel.ERROR);
+			}
+			return true;
+		} finally {
+			if (finished) {
+				runningScripts.removeValue(script.path, false);
+			}
+		}
+	}
 
-					m.setAccessible(true);
-					m.invoke(exec, args);
-					return;
-				} catch (ReflectionException e) {
-					String msg = e.getMessage();
-					if (msg == null || msg.length() <= 0) {
-						msg = "Unknown Error";
-						e.printStackTrace();
+	@Override public void setCommandFrameBudget (long nanos) {
+		commandFrameBudget = nanos;
+	}
+
+	@Override public int getQueuedCommandCount () {
+		return commandQueue.size;
+	}
+
+	@Override public long getSpilledCommandCount () {
+		return spilledCommands;
+	}
+
+	/**
+	 * Runs queued commands, one script step at a time, until the queue is empty or the frame budget is used up. At least one
+	 * command runs per call. Called by {@link #draw()}.
+	 */
+	protected void runQueuedCommands () {
+		if (commandQueue.size == 0 || disabled) {
+			return;
+		}
+		long start = TimeUtils.nanoTime();
+		runningQueue = true;
+		try {
+			do {
+				QueuedCommand next = commandQueue.removeFirst();
+				boolean finished = true;
+				try {
+					if (next.script != null) {
+						finished = runScriptStep(next);
+					} else {
+						execCommand(next.line, next.output);
 					}
-					log(msg, LogLevel.ERROR);
-					if (consoleTrace) {
-						log(e, LogLevel.ERROR);
+				} finally {
+					if (finished) {
+						queuedCommandPool.free(next);
+					} else {
+						commandQueue.addFirst(next);
 					}
-					return;
 				}
+			} while (commandQueue.size > 0 && (commandFrameBudget <= 0 || TimeUtils.timeSinceNanos(start) < commandFrameBudget));
+		} finally {
+			runningQueue = false;
+		}
+		// each command counts once, when it first misses a frame; those that already did are between the front, which may be a
+		// script that just ran a step, and the commands queued since the last frame
+		for (int i = commandQueue.size - 1; i >= 0; i--) {
+			QueuedCommand waiting = commandQueue.get(i);
+			if (waiting.spilled) {
+				if (i > 0) {
+					i = 1;
+				}
+				continue;
+			}
+			waiting.spilled = true;
+			spilledCommands++;
+		}
+	}
+
+	/**
+	 * @param owner The alias the step belongs to, or null if it belongs to a script.
+	 * @return False if the step could not run or its command failed, which was logged.
+	 */
+	private boolean runStep (Step step, CommandAlias owner) {
+		if (step.alias != null) {
+			if (!step.alias.defined) {
+				logStepError(step, owner, "Alias " + step.alias.name + " was removed.");
+				return false;
+			}
+			runAlias(step.alias);
+			return true;
+		}
+		Command command = step.command;
+		if (step.error != null || !ConsoleUtils.canExecuteCommand(this, command)) {
+			logStepError(step, owner, step.error != null ? step.error : "No such method found.");
+			return false;
+		}
+		int arity = command.getArity();
+		Object[] args = arity > 0 ? new Object[arity] : null;
+		command.convertArguments(step.tokens, step.argumentStarts, step.argumentEnds, args);
+		if (command.isAsync()) {
+			invokeAsync(command, args);
+			return true;
+		}
+		if (!invoke(command, args)) {
+			logStepError(step, owner, command.getName() + " failed.");
+			return false;
+		}
+		return true;
+	}
+
+	private void logStepError (Step step, CommandAlias owner, String error) {
+		log((owner != null ? owner.name : "Line " + step.line) + ": " + error, LogLevel.ERROR);
+	}
+
+	/**
+	 * @return The cached script for the file if it is still current, otherwise the file parsed again.
+	 * @throws GdxRuntimeException If the file cannot be read.
+	 */
+	private CommandScript loadScript (FileHandle file, String path) {
+		long lastModified = file.lastModified();
+		long length = file.length();
+		CommandScript script = scripts.get(path);
+		if (script != null && script.isCurrent(lastModified, length, commands.getVersion(), aliasVersion)) {
+			return script;
+		}
+
+		script = new CommandScript(path, lastModified, length, commands.getVersion(), aliasVersion);
+		BufferedReader reader = file.reader(4096, "UTF-8");
+		try {
+			int number = 0;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				number++;
+				parseScriptLine(script, line.trim(), number);
 			}
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Error reading script " + path, e);
+		} finally {
+			StreamUtils.closeQuietly(reader);
 		}
+		scripts.put(path, script);
+		return script;
+	}
 
-		log("Bad parameters. Check your code.", LogLevel.ERROR);
+	private void parseScriptLine (CommandScript script, String line, int number) {
+		if (line.startsWith("#")) {
+			return;
+		}
+		if (!compileTokens.tokenize(line)) {
+			script.steps.add(new Step(number, line, compileTokens.getError()));
+			return;
+		}
+		compileCommands(compileTokens, number, line, null, script.steps);
 	}
 
-	private ArrayList<Method> getAllMethods () {
-		ArrayList<Method> methods = new ArrayList<Method>();
-		Class c = exec.getClass();
-		while (c != Object.class) {
-			Collections.addAll(methods, ClassReflection.getDeclaredMethods(c));
-			c = c.getSuperclass();
+	/**
+	 * Resolves every command of a tokenized line to a {@link Step}.
+	 *
+	 * @param owner The alias being compiled, which the commands must not run, or null.
+	 */
+	private void compileCommands (CommandTokenizer tokens, int number, String line, CommandAlias owner, Array<Step> out) {
+		for (int i = 0; i < tokens.getCommandCount(); i++) {
+			int nameToken = tokens.getCommandToken(i);
+			int numArgs = tokens.getArgumentCount(i);
+			CommandAlias alias = aliases.get(tokens, tokens.getTokenStart(nameToken), tokens.getTokenEnd(nameToken));
+			if (alias != null && (alias.defined || alias == owner)) {
+				if (numArgs > 0) {
+					out.add(new Step(number, line, alias.name + " is an alias and takes no arguments."));
+				} else if (owner != null && (alias == owner || alias.runs(owner))) {
+					out.add(new Step(number, line, "Running " + alias.name + " would run " + owner.name + " again."));
+				} else {
+					out.add(new Step(number, line, alias));
+				}
+				continue;
+			}
+			// the arguments are converted to pick the overload, but converted again each time the steps run
+			Command command = resolveCommand(tokens, i, numArgs > 0 ? new Object[numArgs] : null);
+			if (command == null) {
+				out.add(new Step(number, line, resolveError));
+			} else {
+				out.add(new Step(number, line, command, tokens, nameToken + 1));
+			}
 		}
-		return methods;
+	}
+
+	@Override public boolean setAlias (String name, String commands) {
+		if (!compileTokens.tokenize(name) || compileTokens.getTokenCount() != 1 || compileTokens.getCommandCount() != 1) {
+			log("Alias names must be a single word.", LogLevel.ERROR);
+			return false;
+		}
+		if (this.commands.get(name) != null) {
+			log(name + " is already a command.", LogLevel.ERROR);
+			return false;
+		}
+		if (!compileTokens.tokenize(commands)) {
+			log("Unable to define alias " + name + ": " + compileTokens.getError(), LogLevel.ERROR);
+			return false;
+		}
+
+		CommandAlias alias = aliases.get(name);
+		if (alias == null) {
+			alias = new CommandAlias(name);
+			aliases.put(name, alias);
+		}
+		Array<Step> steps = new Array<Step>();
+		compileCommands(compileTokens, 1, commands, alias, steps);
+		for (Step step : steps) {
+			if (step.error != null) {
+				log("Unable to define alias " + name + ": " + step.error, LogLevel.ERROR);
+				return false;
+			}
+		}
+
+		alias.commands = commands;
+		alias.steps.clear();
+		alias.steps.addAll(steps);
+		alias.registryVersion = this.commands.getVersion();
+		alias.defined = true;
+		aliasVersion++;
+		return true;
+	}
+
+	@Override public boolean removeAlias (String name) {
+		CommandAlias alias = aliases.get(name);
+		if (alias == null || !alias.defined) {
+			return false;
+		}
+		alias.defined = false;
+		alias.steps.clear();
+		aliasVersion++;
+		return true;
+	}
+
+	@Override public void printAliases () {
+		Array<CommandAlias> all = new Array<CommandAlias>();
+		aliases.collect("", all);
+		for (CommandAlias alias : all) {
+			if (alias.defined) {
+				log(alias.name + " : " + alias.commands);
+			}
+		}
+	}
+
+	private void runAlias (CommandAlias alias) {
+		if (alias.registryVersion != commands.getVersion()) {
+			// the executor changed since the alias was defined
+			alias.steps.clear();
+			compileTokens.tokenize(alias.commands);
+			compileCommands(compileTokens, 1, alias.commands, alias, alias.steps);
+			alias.registryVersion = commands.getVersion();
+		}
+		for (int i = 0; i < alias.steps.size; i++) {
+			runStep(alias.steps.get(i), alias);
+		}
+	}
+
+	/**
+	 * @return False if the command threw an exception, which was logged.
+	 */
+	private boolean invoke (Command command, Object[] args) {
+		CommandMetrics metrics = this.metrics;
+		long start = metrics == null ? 0 : TimeUtils.nanoTime();
+		try {
+			command.invoke(exec, args);
+			if (metrics != null) {
+				metrics.recordInvocation(command.getName(), TimeUtils.timeSinceNanos(start), true);
+			}
+			return true;
+		} catch (ReflectionException e) {
+			if (metrics != null) {
+				metrics.recordInvocation(command.getName(), TimeUtils.timeSinceNanos(start), false);
+			}
+			String msg = e.getMessage();
+			if (msg == null || msg.length() <= 0) {
+				msg = "Unknown Error";
+				e.printStackTrace();
+			}
+			log(msg, LogLevel.ERROR);
+			if (consoleTrace) {
+				log(e, LogLevel.ERROR);
+			}
+			return false;
+		}
+	}
+
+	private void invokeAsync (final Command command, final Object[] args) {
+		pendingCommands.incrementAndGet();
+		log("Running " + command.getName() + " in the background.", LogLevel.DEFAULT);
+		getAsyncExecutor().submit(new AsyncTask<Void>() {
+			@Override public Void call () {
+				long start = TimeUtils.nanoTime();
+				boolean success = false;
+				try {
+					success = invoke(command, args);
+				} catch (RuntimeException e) {
+					log(e, LogLevel.ERROR);
+				} finally {
+					pendingCommands.decrementAndGet();
+				}
+				long millis = TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(start));
+				if (success) {
+					log(command.getName() + " finished in " + millis + " ms.", LogLevel.SUCCESS);
+				} else {
+					log(command.getName() + " failed after " + millis + " ms.", LogLevel.ERROR);
+				}
+				return null;
+			}
+		});
+	}
+
+	@Override public void setCommandMetricsEnabled (boolean enabled) {
+		if (!enabled) {
+			metrics = null;
+		} else if (metrics == null) {
+			metrics = new CommandMetrics();
+		}
+	}
+
+	@Override public CommandMetrics getCommandMetrics () {
+		return metrics;
+	}
+
+	@Override public void printCommandMetrics () {
+		CommandMetrics metrics = this.metrics;
+		if (metrics == null) {
+			log("Command metrics are disabled.", LogLevel.ERROR);
+			return;
+		}
+		Array<CommandStats> all = new Array<CommandStats>();
+		metrics.getAll(all);
+		for (CommandStats s : all) {
+			String line = s.getName() + ": " + s.getInvocations() + " runs, " + s.getFailures() + " failed, " + s.getBadParameters()
+				+ " bad parameters";
+			if (s.getInvocations() > 0) {
+				line += ", p50 " + formatNanos(s.getPercentileNanos(0.5)) + ", p90 " + formatNanos(s.getPercentileNanos(0.9)) + ", p99 "
+					+ formatNanos(s.getPercentileNanos(0.99)) + ", max " + formatNanos(s.getMaxNanos());
+			}
+			log(line);
+		}
+		log(metrics.getUnknownCommands() + " unknown commands entered.");
+	}
+
+	private static String formatNanos (long nanos) {
+		if (nanos < 10000) {
+			return nanos + " ns";
+		}
+		if (nanos < 10000000) {
+			return nanos / 1000 + " us";
+		}
+		return nanos / 1000000 + " ms";
+	}
+
+	@Override public int getPendingCommandCount () {
+		return pendingCommands.get();
 	}
 
 	@Override public void printCommands () {
-		for (Method m : getAllMethods()) {
-			if (m.isPublic() && ConsoleUtils.canDisplayCommand(this, m)) {
-				String s = "";
-				s += m.getName();
-				s += " : ";
-
-				Class<?>[] params = m.getParameterTypes();
-				for (int i = 0; i < params.length; i++) {
-					s += params[i].getSimpleName();
-					if (i < params.length - 1) {
-						s += ", ";
+		helpGroups.clear();
+		commands.collect("", helpGroups);
+		StringBuilder sb = new StringBuilder();
+		for (CommandGroup group : helpGroups) {
+			for (int arity = 0; arity <= group.getMaxArity(); arity++) {
+				for (Command command : group.get(arity)) {
+					if (!ConsoleUtils.canDisplayCommand(this, command)) {
+						continue;
 					}
+					sb.setLength(0);
+					sb.append(command.getName()).append(" : ");
+					appendParameterTypes(sb, command);
+					log(sb.toString());
 				}
+			}
+		}
+	}
 
-				log(s);
+	private static void appendParameterTypes (StringBuilder sb, Command command) {
+		Class<?>[] params = command.getParameterTypes();
+		for (int i = 0; i < params.length; i++) {
+			sb.append(params[i].getSimpleName());
+			if (i < params.length - 1) {
+				sb.append(", ");
 			}
 		}
 	}
 
 	@Override public void printHelp (String command) {
-		boolean found = false;
-		for (Method m : getAllMethods()) {
-			if (m.getName().equals(command)) {
-				found = true;
-				StringBuilder sb = new StringBuilder();
-				sb.append(m.getName()).append(": ");
-				Annotation annotation = m.getDeclaredAnnotation(ConsoleDoc.class);
-				if (annotation != null) {
-					ConsoleDoc doc = annotation.getAnnotation(ConsoleDoc.class);
+		CommandGroup group = commands.get(command);
+		if (group == null) {
+			log("Command does not exist.");
+			return;
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int arity = 0; arity <= group.getMaxArity(); arity++) {
+			for (Command overload : group.get(arity)) {
+				sb.setLength(0);
+				sb.append(overload.getName()).append(": ");
+				ConsoleDoc doc = overload.getDoc();
+				if (doc != null) {
 					sb.append(doc.description());
-					Class<?>[] params = m.getParameterTypes();
+					Class<?>[] params = overload.getParameterTypes();
 					for (int i = 0; i < params.length; i++) {
 						sb.append("\n");
-						for (int j = 0; j < m.getName().length() + 2; j++)
+						for (int j = 0; j < overload.getName().length() + 2; j++)
 							// using spaces this way works with monotype fonts
 							sb.append(" ");
 						sb.append(params[i].getSimpleName()).append(": ");
@@ -249,21 +1034,11 @@ public abstract class AbstractConsole implements Console, Disposable {
 							sb.append(doc.paramDescriptions()[i]);
 					}
 				} else {
-					Class<?>[] params = m.getParameterTypes();
-					for (int i = 0; i < params.length; i++) {
-						sb.append(params[i].getSimpleName());
-						if (i < params.length - 1) {
-							sb.append(", ");
-						}
-					}
+					appendParameterTypes(sb, overload);
 				}
-
 				log(sb.toString());
 			}
 		}
-
-		if (!found)
-			log("Command does not exist.");
 	}
 
 	@Override public void setExecuteHiddenCommands (boolean enabled) {
@@ -312,6 +1087,7 @@ public abstract class AbstractConsole implements Console, Disposable {
 	}
 
 	@Override public void draw () {
+		runQueuedCommands();
 	}
 
 	@Override public void refresh () {
@@ -331,7 +1107,36 @@ public abstract class AbstractConsole implements Console, Disposable {
 		return false;
 	}
 
+	@Override public synchronized void addLogSink (LogSink sink) {
+		LogSink[] added = new LogSink[sinks.length + 1];
+		System.arraycopy(sinks, 0, added, 0, sinks.length);
+		added[sinks.length] = sink;
+		sinks = added;
+	}
+
+	@Override public synchronized void removeLogSink (LogSink sink) {
+		for (int i = 0; i < sinks.length; i++) {
+			if (sinks[i] == sink) {
+				LogSink[] removed = new LogSink[sinks.length - 1];
+				System.arraycopy(sinks, 0, removed, 0, i);
+				System.arraycopy(sinks, i + 1, removed, i, removed.length - i);
+				sinks = removed;
+				return;
+			}
+		}
+	}
+
 	@Override public void dispose () {
+		if (asyncExecutor != null) {
+			asyncExecutor.dispose();
+			asyncExecutor = null;
+		}
+		log.dispose();
+		LogSink[] sinks = this.sinks;
+		this.sinks = new LogSink[0];
+		for (LogSink sink : sinks) {
+			sink.dispose();
+		}
 	}
 
 	@Override public boolean isVisible () {
@@ -371,4 +1176,23 @@ public abstract class AbstractConsole implements Console, Disposable {
 	@Override public Window getWindow () {
 		return null;
 	}
+
+	/**
+	 * A command line, or a script with its progress, waiting for {@link #runQueuedCommands()}.
+	 */
+	private static class QueuedCommand implements Pool.Poolable {
+		String line;
+		LogSink output;
+		CommandScript script;
+		int step, errors, echoedLine;
+		boolean spilled;
+
+		@Override public void reset () {
+			line = null;
+			output = null;
+			script = null;
+			step = errors = echoedLine = 0;
+			spilled = false;
+		}
+	}
 }
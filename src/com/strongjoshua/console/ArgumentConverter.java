@@ -0,0 +1,34 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+/**
+ * Converts the text of a command argument into a parameter value. One converter is bound to each parameter when the
+ * {@link CommandRegistry} is built, see {@link ArgumentConverters}.
+ */
+public interface ArgumentConverter {
+	/**
+	 * Returned by {@link #convert(CharSequence, int, int)} if the text is not a valid value. Converters report failures this way
+	 * instead of throwing, as trying the next overload of a command is a normal outcome.
+	 */
+	Object INVALID = new Object();
+
+	/**
+	 * @param text  Contains the argument.
+	 * @param start Index of the first character of the argument.
+	 * @param end   Index after the last character of the argument.
+	 * @return The converted value, or {@link #INVALID}.
+	 */
+	Object convert (CharSequence text, int start, int end);
+}
@@ -0,0 +1,310 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Colors;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+/**
+ * The {@link ArgumentConverter}s commands can use, by parameter type. Strings, characters, booleans, all number types (primitive
+ * and boxed), enums, {@link Vector2} (<code>x,y</code>) and {@link Color} (<code>#rrggbb</code>, <code>rrggbbaa</code> or a name
+ * known to {@link Colors}) are supported out of the box. Parameters of any other type cannot be converted unless a converter is
+ * registered for them.
+ */
+public class ArgumentConverters {
+	public static final ArgumentConverter STRING = new ArgumentConverter() {
+		@Override public Object convert (CharSequence text, int start, int end) {
+			return text.subSequence(start, end).toString();
+		}
+	};
+
+	public static final ArgumentConverter CHARACTER = new ArgumentConverter() {
+		@Override public Object convert (CharSequence text, int start, int end) {
+			return end - start == 1 ? (Object)text.charAt(start) : INVALID;
+		}
+	};
+
+	public static final ArgumentConverter BOOLEAN = new ArgumentConverter() {
+		@Override public Object convert (CharSequence text, int start, int end) {
+			if (regionMatches(text, start, end, "true", true)) {
+				return Boolean.TRUE;
+			}
+			if (regionMatches(text, start, end, "false", true)) {
+				return Boolean.FALSE;
+			}
+			return INVALID;
+		}
+	};
+
+	public static final ArgumentConverter BYTE = new IntegerConverter(Byte.MIN_VALUE, Byte.MAX_VALUE) {
+		@Override Object box (long value) {
+			return (byte)value;
+		}
+	};
+
+	public static final ArgumentConverter SHORT = new IntegerConverter(Short.MIN_VALUE, Short.MAX_VALUE) {
+		@Override Object box (long value) {
+			return (short)value;
+		}
+	};
+
+	public static final ArgumentConverter INTEGER = new IntegerConverter(Integer.MIN_VALUE, Integer.MAX_VALUE) {
+		@Override Object box (long value) {
+			return (int)value;
+		}
+	};
+
+	public static final ArgumentConverter LONG = new IntegerConverter(Long.MIN_VALUE, Long.MAX_VALUE) {
+		@Override Object box (long value) {
+			return value;
+		}
+	};
+
+	public static final ArgumentConverter FLOAT = new ArgumentConverter() {
+		@Override public Object convert (CharSequence text, int start, int end) {
+			return isDecimal(text, start, end) ? (Object)Float.parseFloat(text.subSequence(start, end).toString()) : INVALID;
+		}
+	};
+
+	public static final ArgumentConverter DOUBLE = new ArgumentConverter() {
+		@Override public Object convert (CharSequence text, int start, int end) {
+			return isDecimal(text, start, end) ? (Object)Double.parseDouble(text.subSequence(start, end).toString()) : INVALID;
+		}
+	};
+
+	public static final ArgumentConverter VECTOR2 = new ArgumentConverter() {
+		@Override public Object convert (CharSequence text, int start, int end) {
+			int comma = start;
+			while (comma < end && text.charAt(comma) != ',') {
+				comma++;
+			}
+			if (comma == end || !isDecimal(text, start, comma) || !isDecimal(text, comma + 1, end)) {
+				return INVALID;
+			}
+			return new Vector2(Float.parseFloat(text.subSequence(start, comma).toString()),
+				Float.parseFloat(text.subSequence(comma + 1, end).toString()));
+		}
+	};
+
+	public static final ArgumentConverter COLOR = new ArgumentConverter() {
+		@Override public Object convert (CharSequence text, int start, int end) {
+			int hexStart = start < end && text.charAt(start) == '#' ? start + 1 : start;
+			int digits = end - hexStart;
+			if (digits == 6 || digits == 8) {
+				long rgba = parseHex(text, hexStart, end);
+				if (rgba >= 0) {
+					if (digits == 6) {
+						rgba = rgba << 8 | 0xff;
+					}
+					return new Color((int)rgba);
+				}
+			}
+			if (hexStart == start && end > start) {
+				Color named = Colors.get(text.subSequence(start, end).toString().toUpperCase());
+				if (named != null) {
+					return new Color(named);
+				}
+			}
+			return INVALID;
+		}
+	};
+
+	private final ObjectMap<Class<?>, ArgumentConverter> converters = new ObjectMap<Class<?>, ArgumentConverter>();
+
+	public ArgumentConverters () {
+		register(String.class, STRING);
+		register(CharSequence.class, STRING);
+		register(char.class, CHARACTER);
+		register(Character.class, CHARACTER);
+		register(boolean.class, BOOLEAN);
+		register(Boolean.class, BOOLEAN);
+		register(byte.class, BYTE);
+		register(Byte.class, BYTE);
+		register(short.class, SHORT);
+		register(Short.class, SHORT);
+		register(int.class, INTEGER);
+		register(Integer.class, INTEGER);
+		register(long.class, LONG);
+		register(Long.class, LONG);
+		register(float.class, FLOAT);
+		register(Float.class, FLOAT);
+		register(double.class, DOUBLE);
+		register(Double.class, DOUBLE);
+		register(Vector2.class, VECTOR2);
+		register(Color.class, COLOR);
+	}
+
+	/**
+	 * Sets the converter for parameters of exactly the given type, replacing any previous one.
+	 *
+	 * @param converter The converter, or null to make parameters of the type unconvertible.
+	 */
+	public void register (Class<?> type, ArgumentConverter converter) {
+		if (converter == null) {
+			converters.remove(type);
+		} else {
+			converters.put(type, converter);
+		}
+	}
+
+	/**
+	 * @return The converter for parameters of the given type, or null if there is none. Enums without a registered converter
+	 * match their constants' names, ignoring case.
+	 */
+	public ArgumentConverter get (Class<?> type) {
+		ArgumentConverter converter = converters.get(type);
+		if (converter == null && ClassReflection.isEnum(type)) {
+			converter = new EnumConverter(ClassReflection.getEnumConstants(type));
+			converters.put(type, converter);
+		}
+		return converter;
+	}
+
+	static boolean regionMatches (CharSequence text, int start, int end, String other, boolean ignoreCase) {
+		if (end - start != other.length()) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			char a = text.charAt(i), b = other.charAt(i - start);
+			if (a != b && (!ignoreCase || Character.toLowerCase(a) != Character.toLowerCase(b))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return True if the range is a decimal number, infinity or NaN in a form {@link Double#parseDouble(String)} accepts, so
+	 * parsing it cannot throw.
+	 */
+	static boolean isDecimal (CharSequence text, int start, int end) {
+		int i = start;
+		if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+			i++;
+		}
+		if (regionMatches(text, i, end, "NaN", false) || regionMatches(text, i, end, "Infinity", false)) {
+			return true;
+		}
+		int digits = 0;
+		while (i < end && isDigit(text.charAt(i))) {
+			i++;
+			digits++;
+		}
+		if (i < end && text.charAt(i) == '.') {
+			i++;
+			while (i < end && isDigit(text.charAt(i))) {
+				i++;
+				digits++;
+			}
+		}
+		if (digits == 0) {
+			return false;
+		}
+		if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+			i++;
+			if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+				i++;
+			}
+			if (i == end || !isDigit(text.charAt(i))) {
+				return false;
+			}
+			while (i < end && isDigit(text.charAt(i))) {
+				i++;
+			}
+		}
+		if (i < end && "fFdD".indexOf(text.charAt(i)) >= 0) {
+			i++;
+		}
+		return i == end;
+	}
+
+	private static boolean isDigit (char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	/**
+	 * @return The value of up to 15 hex digits, or -1 if the range contains anything else.
+	 */
+	private static long parseHex (CharSequence text, int start, int end) {
+		long value = 0;
+		for (int i = start; i < end; i++) {
+			int digit = Character.digit(text.charAt(i), 16);
+			if (digit < 0) {
+				return -1;
+			}
+			value = value << 4 | digit;
+		}
+		return value;
+	}
+
+	/**
+	 * Parses decimal integers within a range without going through a String.
+	 */
+	abstract static class IntegerConverter implements ArgumentConverter {
+		private final long min, max;
+
+		IntegerConverter (long min, long max) {
+			this.min = min;
+			this.max = max;
+		}
+
+		@Override public Object convert (CharSequence text, int start, int end) {
+			int i = start;
+			boolean negative = false;
+			if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+				negative = text.charAt(i) == '-';
+				i++;
+			}
+			if (i == end) {
+				return INVALID;
+			}
+			// accumulated as a negative number so that the minimum value does not overflow
+			long limit = negative ? min : -max;
+			long value = 0;
+			for (; i < end; i++) {
+				int digit = text.charAt(i) - '0';
+				if (digit < 0 || digit > 9 || value < (limit + digit) / 10) {
+					return INVALID;
+				}
+				value = value * 10 - digit;
+			}
+			return box(negative ? value : -value);
+		}
+
+		abstract Object box (long value);
+	}
+
+	/**
+	 * Matches an enum constant by name, ignoring case.
+	 */
+	static class EnumConverter implements ArgumentConverter {
+		private final Object[] constants;
+
+		EnumConverter (Object[] constants) {
+			this.constants = constants;
+		}
+
+		@Override public Object convert (CharSequence text, int start, int end) {
+			for (Object constant : constants) {
+				if (regionMatches(text, start, end, ((Enum<?>)constant).name(), true)) {
+					return constant;
+				}
+			}
+			return INVALID;
+		}
+	}
+}
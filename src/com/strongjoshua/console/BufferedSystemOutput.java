@@ -0,0 +1,284 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Prints log entries to {@link System#out} and, for errors, {@link System#err} from a background thread, which sleeps while there
+ * is nothing to print. Entries are encoded into a reused byte buffer, which is written out once it holds enough bytes, a short
+ * delay after the first entry, or when {@link #flush()} or {@link #dispose()} is called. Stretches of output going to the same stream are written together, but the order of entries across
+ * both streams is kept, so they interleave correctly on a shared terminal.
+ */
+public class BufferedSystemOutput implements Disposable {
+	private static final int FLUSH_BYTES = 8192;
+	private static final long FLUSH_INTERVAL_MILLIS = 50;
+	// if the writer cannot keep up, the logging thread writes the output itself instead of buffering more
+	private static final int MAX_BUFFERED_BYTES = 1024 * 1024;
+	private static final String PREFIX = "> ";
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+	// outputs not disposed yet, printed by a single shutdown hook that is only registered while there are any
+	private static final Array<BufferedSystemOutput> undisposed = new Array<BufferedSystemOutput>();
+	static Thread shutdownHook;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	// held while a batch is printed, so batches never print concurrently or out of order; taken after lock, never before it
+	private final ReentrantLock printLock = new ReentrantLock();
+	private final Condition flushRequested = lock.newCondition();
+	private final CharsetEncoder encoder;
+	private CharBuffer chars = CharBuffer.allocate(256);
+	private Batch pending = new Batch(), writing = new Batch();
+	private boolean running = true;
+
+	final Thread writer;
+
+	public BufferedSystemOutput () {
+		encoder = Charset.defaultCharset().newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		writer = new Thread(new Runnable() {
+			@Override public void run () {
+				writeLoop();
+			}
+		}, "Console system output");
+		writer.setDaemon(true);
+		writer.start();
+		register(this);
+	}
+
+	/**
+	 * Makes sure output still buffered when the application exits without disposing the console is printed anyway.
+	 */
+	private static void register (BufferedSystemOutput output) {
+		synchronized (undisposed) {
+			undisposed.add(output);
+			if (shutdownHook != null) {
+				return;
+			}
+			Thread hook = new Thread(new Runnable() {
+				@Override public void run () {
+					BufferedSystemOutput[] outputs;
+					synchronized (undisposed) {
+						outputs = undisposed.toArray(BufferedSystemOutput.class);
+					}
+					for (BufferedSystemOutput output : outputs) {
+						output.flush();
+					}
+				}
+			}, "Console system output shutdown");
+			try {
+				Runtime.getRuntime().addShutdownHook(hook);
+				shutdownHook = hook;
+			} catch (IllegalStateException e) {
+				// already shutting down, output is printed on dispose or lost with the daemon thread
+			}
+		}
+	}
+
+	private static void unregister (BufferedSystemOutput output) {
+		synchronized (undisposed) {
+			undisposed.removeValue(output, true);
+			if (undisposed.size > 0 || shutdownHook == null) {
+				return;
+			}
+			try {
+				Runtime.getRuntime().removeShutdownHook(shutdownHook);
+			} catch (IllegalStateException e) {
+				// already shutting down, the hook flushes
+			}
+			shutdownHook = null;
+		}
+	}
+
+	/**
+	 * Queues the message, prefixed with <code>"> "</code>, as one line. Errors go to {@link System#err}.
+	 */
+	public void write (CharSequence msg, LogLevel level) {
+		lock.lock();
+		try {
+			boolean wasEmpty = pending.size() == 0;
+			int length = PREFIX.length() + msg.length() + LINE_SEPARATOR.length();
+			if (chars.capacity() < length) {
+				chars = CharBuffer.allocate(Math.max(length, chars.capacity() * 2));
+			}
+			chars.clear();
+			chars.put(PREFIX);
+			for (int i = 0, n = msg.length(); i < n; i++) {
+				chars.put(msg.charAt(i));
+			}
+			chars.put(LINE_SEPARATOR);
+			chars.flip();
+			pending.append(chars, encoder, level == LogLevel.ERROR);
+
+			if (pending.size() >= MAX_BUFFERED_BYTES) {
+				printPending();
+			} else if (wasEmpty || pending.size() >= FLUSH_BYTES) {
+				// wakes the writer from sleeping, or from its delay once enough is buffered
+				flushRequested.signal();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Prints everything queued so far on the calling thread.
+	 */
+	public void flush () {
+		lock.lock();
+		try {
+			printPending();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void printPending () {
+		printLock.lock();
+		try {
+			pending.writeTo(System.out, System.err);
+		} finally {
+			printLock.unlock();
+		}
+	}
+
+	private void writeLoop () {
+		while (true) {
+			Batch batch;
+			lock.lock();
+			try {
+				while (running && pending.size() == 0) {
+					flushRequested.await();
+				}
+				if (running && pending.size() < FLUSH_BYTES) {
+					// so that entries logged shortly after each other are printed together
+					flushRequested.await(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				if (!running) {
+					return;
+				}
+				// swap buffers so entries can be queued while this batch is printed
+				batch = pending;
+				pending = writing;
+				writing = batch;
+				printLock.lock();
+			} catch (InterruptedException e) {
+				return;
+			} finally {
+				lock.unlock();
+			}
+			try {
+				batch.writeTo(System.out, System.err);
+			} finally {
+				printLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Stops the background thread and prints everything still queued.
+	 */
+	@Override public void dispose () {
+		lock.lock();
+		try {
+			running = false;
+			flushRequested.signal();
+		} finally {
+			lock.unlock();
+		}
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		unregister(this);
+		flush();
+	}
+
+	/**
+	 * Encoded output, split into runs that go to the same stream.
+	 */
+	static class Batch {
+		private ByteBuffer bytes = ByteBuffer.allocate(FLUSH_BYTES * 2);
+		private int[] runEnds = new int[16];
+		private boolean[] runErrors = new boolean[16];
+		private int runs;
+
+		int size () {
+			return bytes.position();
+		}
+
+		void append (CharBuffer chars, CharsetEncoder encoder, boolean error) {
+			encoder.reset();
+			while (true) {
+				if (encoder.encode(chars, bytes, true).isOverflow()) {
+					grow();
+					continue;
+				}
+				if (encoder.flush(bytes).isOverflow()) {
+					grow();
+					continue;
+				}
+				break;
+			}
+			if (runs > 0 && runErrors[runs - 1] == error) {
+				runEnds[runs - 1] = bytes.position();
+				return;
+			}
+			if (runs == runEnds.length) {
+				int[] ends = new int[runs * 2];
+				System.arraycopy(runEnds, 0, ends, 0, runs);
+				runEnds = ends;
+				boolean[] errors = new boolean[runs * 2];
+				System.arraycopy(runErrors, 0, errors, 0, runs);
+				runErrors = errors;
+			}
+			runEnds[runs] = bytes.position();
+			runErrors[runs] = error;
+			runs++;
+		}
+
+		private void grow () {
+			ByteBuffer grown = ByteBuffer.allocate(bytes.capacity() * 2);
+			bytes.flip();
+			grown.put(bytes);
+			bytes = grown;
+		}
+
+		void writeTo (PrintStream out, PrintStream err) {
+			byte[] array = bytes.array();
+			int start = 0;
+			for (int i = 0; i < runs; i++) {
+				PrintStream stream = runErrors[i] ? err : out;
+				stream.write(array, start, runEnds[i] - start);
+				// flushed per run so the other stream's next run appears after it
+				stream.flush();
+				start = runEnds[i];
+			}
+			bytes.clear();
+			runs = 0;
+		}
+	}
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.Array;
+import com.strongjoshua.console.CommandScript.Step;
+
+/**
+ * A name that runs a sequence of commands, defined with {@link Console#setAlias(String, String)}. The commands are resolved when the
+ * alias is defined, so running it neither tokenizes nor looks up anything again. Once created for a name, the same instance is
+ * reused if the alias is removed and defined again, so other aliases and cached scripts that run it stay valid.
+ */
+public class CommandAlias {
+	final String name;
+	String commands;
+	final Array<Step> steps = new Array<Step>();
+	int registryVersion;
+	boolean defined;
+
+	CommandAlias (String name) {
+		this.name = name;
+	}
+
+	public String getName () {
+		return name;
+	}
+
+	/**
+	 * @return The commands the alias runs, as they were defined.
+	 */
+	public String getCommands () {
+		return commands;
+	}
+
+	/**
+	 * @return False if the alias was removed.
+	 */
+	public boolean isDefined () {
+		return defined;
+	}
+
+	/**
+	 * @return True if running this alias would, directly or through other aliases, run the given one.
+	 */
+	boolean runs (CommandAlias alias) {
+		for (Step step : steps) {
+			if (step.alias != null && (step.alias == alias || step.alias.defined && step.alias.runs(alias))) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -14,38 +14,58 @@
 package com.strongjoshua.console;
 
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.ObjectSet;
-import com.badlogic.gdx.utils.ObjectSet.ObjectSetIterator;
-import com.badlogic.gdx.utils.reflect.ClassReflection;
-import com.badlogic.gdx.utils.reflect.Method;
+import com.strongjoshua.console.CommandRegistry.CommandGroup;
 
+/**
+ * Cycles through the commands starting with the text typed so far, in alphabetical order.
+ */
 public class CommandCompleter {
-	private ObjectSet<String> possibleCommands;
-	private ObjectSetIterator<String> iterator;
+	private final Array<CommandGroup> matches;
+	private final Array<CommandGroup> possibleCommands;
+	private int index;
 	private String setString;
 
 	public CommandCompleter () {
-		possibleCommands = new ObjectSet<>();
+		matches = new Array<CommandGroup>();
+		possibleCommands = new Array<CommandGroup>();
 		setString = "";
 	}
 
+	/**
+	 * Collects the commands of the executor's console that start with the given text. Prefer
+	 * {@link #set(CommandRegistry, Console, String)} if the registry is at hand.
+	 */
 	public void set (CommandExecutor ce, String s) {
+		CommandRegistry commands;
+		if (ce.console instanceof AbstractConsole) {
+			commands = ((AbstractConsole)ce.console).commands;
+		} else {
+			commands = new CommandRegistry();
+			commands.build(ce);
+		}
+		set(commands, ce.console, s);
+	}
+
+	/**
+	 * Collects the commands starting with the given text, ignoring case, that the console may display.
+	 */
+	public void set (CommandRegistry commands, Console console, String s) {
 		reset();
 		setString = s.toLowerCase();
-		Array<Method> methods = getAllMethods(ce);
-		for (Method m : methods) {
-			String name = m.getName();
-			if (name.toLowerCase().startsWith(setString) && ConsoleUtils.canDisplayCommand(ce.console, m)) {
-				possibleCommands.add(name);
+		commands.collect(s, matches);
+		for (int i = 0; i < matches.size; i++) {
+			CommandGroup group = matches.get(i);
+			if (ConsoleUtils.canDisplayCommand(console, group)) {
+				possibleCommands.add(group);
 			}
 		}
-		iterator = new ObjectSetIterator<>(possibleCommands);
+		matches.clear();
 	}
 
 	public void reset () {
 		possibleCommands.clear();
 		setString = "";
-		iterator = null;
+		index = 0;
 	}
 
 	public boolean isNew () {
@@ -57,28 +77,10 @@ public class CommandCompleter {
 	}
 
 	public String next () {
-		if (!iterator.hasNext) {
-			iterator.reset();
+		if (index >= possibleCommands.size) {
+			index = 0;
 			return setString;
 		}
-		return iterator.next();
-	}
-
-	private Array<Method> getAllMethods (CommandExecutor ce) {
-		Array<Method> methods = new Array<>();
-		Method[] ms = ClassReflection.getDeclaredMethods(ce.getClass());
-		for (Method m : ms) {
-			if (m.isPublic()) {
-				methods.add(m);
-			}
-		}
-		ms = ClassReflection.getDeclaredMethods(ce.getClass().getSuperclass());
-		for (Method m : ms) {
-			if (m.isPublic()) {
-				methods.add(m);
-			}
-		}
-
-		return methods;
+		return possibleCommands.get(index++).getName();
 	}
 }
@@ -25,7 +25,8 @@ import com.strongjoshua.console.annotation.ConsoleDoc;
  * <br>
  * <b>Notes</b><br>
  * <ul>
- * <li>Arguments <i><b>must</b></i> be primitive types (the only exception being {@link String}).</li>
+ * <li>Arguments can be primitives, {@link String}, enums or any type registered with
+ * {@link Console#registerArgumentConverter(Class, ArgumentConverter)}.</li>
  * <li>No two methods, of the same name, can have the same number of parameters. Make multiple methods with more specific names if
  * they must have the same number of parameters.</li>
  * <li>Methods are case-<b>insensitive</b> when invoked from the console.</li>
@@ -49,6 +50,58 @@ public class CommandExecutor {
 		console.printLogToFile(path);
 	}
 
+	/**
+	 * Prints the log to a local file.
+	 *
+	 * @param path          The relative path of the local file to print to.
+	 * @param expandRepeats If repeated entries are written once per repeat.
+	 */
+	public final void printLog (String path, boolean expandRepeats) {
+		console.printLogToFile(Gdx.files.local(path), expandRepeats);
+	}
+
+	/**
+	 * Runs the commands in a script file.
+	 *
+	 * @param path The relative path of the local file to run.
+	 * @see Console#execScript(com.badlogic.gdx.files.FileHandle)
+	 */
+	@ConsoleDoc(description = "Runs the commands in a script file, one per line.") public void exec (String path) {
+		console.execScript(path);
+	}
+
+	/**
+	 * Defines an alias that runs other commands.
+	 *
+	 * @param name     The alias name.
+	 * @param commands The commands to run, separated by <code>;</code>.
+	 * @see Console#setAlias(String, String)
+	 */
+	@ConsoleDoc(description = "Defines a name that runs the given commands, separated by ';'.") public void alias (String name,
+		String commands) {
+		if (console.setAlias(name, commands)) {
+			console.log("Alias " + name + " defined.", LogLevel.SUCCESS);
+		}
+	}
+
+	/**
+	 * Removes an alias.
+	 *
+	 * @param name The alias name.
+	 */
+	@ConsoleDoc(description = "Removes an alias.") public void unalias (String name) {
+		if (!console.removeAlias(name)) {
+			console.log("No such alias found.", LogLevel.ERROR);
+		}
+	}
+
+	/**
+	 * Shows all aliases and the commands they run.
+	 */
+	@ConsoleDoc(description = "Shows all aliases.") public void aliases () {
+		console.printAliases();
+	}
+
 	/**
 	 * Closes the application completely.
 	 */
@@ -72,6 +125,13 @@ public class CommandExecutor {
 		console.printHelp(command);
 	}
 
+	/**
+	 * Prints how often each command ran and how long it took, if enabled with {@link Console#setCommandMetricsEnabled(boolean)}.
+	 */
+	@ConsoleDoc(description = "Prints run counts and latency percentiles of all commands.") public final void commandStats () {
+		console.printCommandMetrics();
+	}
+
 	/**
 	 * Deselects the text field in the console. Gives keyboard control back to the application.
 	 */
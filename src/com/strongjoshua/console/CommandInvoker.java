@@ -0,0 +1,37 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.reflect.Method;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+/**
+ * Calls a command method on a {@link CommandExecutor}. One invoker is bound to each command when the {@link CommandRegistry} is
+ * built.
+ */
+public interface CommandInvoker {
+	/**
+	 * @param target The executor to call the command on.
+	 * @param args   The converted arguments, or null if the command takes none.
+	 * @return The command's return value.
+	 * @throws ReflectionException If the method could not be called or threw an exception itself.
+	 */
+	Object invoke (Object target, Object[] args) throws ReflectionException;
+
+	/**
+	 * Creates the invoker for a single command method.
+	 */
+	interface Factory {
+		CommandInvoker create (Method method);
+	}
+}
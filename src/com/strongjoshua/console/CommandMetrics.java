@@ -0,0 +1,185 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.Comparator;
+
+/**
+ * How often each command was run, how often it failed and how long it took. Latencies are kept in a histogram with one bucket per
+ * power of two nanoseconds, so recording never allocates and percentiles are approximate. Enabled with
+ * {@link Console#setCommandMetricsEnabled(boolean)}.
+ * <p>
+ * Safe to read while commands are recorded from a background thread.
+ */
+public class CommandMetrics {
+	private static final Comparator<CommandStats> BY_NAME = new Comparator<CommandStats>() {
+		@Override public int compare (CommandStats a, CommandStats b) {
+			return a.name.compareToIgnoreCase(b.name);
+		}
+	};
+
+	private final ObjectMap<String, CommandStats> stats = new ObjectMap<String, CommandStats>();
+	private long unknownCommands;
+
+	synchronized void recordUnknownCommand () {
+		unknownCommands++;
+	}
+
+	void recordBadParameters (String command) {
+		CommandStats s = obtain(command);
+		synchronized (s) {
+			s.badParameters++;
+		}
+	}
+
+	/**
+	 * @param nanos   How long the command took.
+	 * @param success False if the command threw an exception.
+	 */
+	void recordInvocation (String command, long nanos, boolean success) {
+		CommandStats s = obtain(command);
+		synchronized (s) {
+			s.record(nanos, success);
+		}
+	}
+
+	private synchronized CommandStats obtain (String command) {
+		CommandStats s = stats.get(command);
+		if (s == null) {
+			s = new CommandStats(command);
+			stats.put(command, s);
+		}
+		return s;
+	}
+
+	/**
+	 * @return The stats of the command, or null if it was never run.
+	 */
+	public synchronized CommandStats get (String command) {
+		return stats.get(command);
+	}
+
+	/**
+	 * Replaces the contents of the array with the stats of every command that was run, sorted by name.
+	 */
+	public void getAll (Array<CommandStats> out) {
+		out.clear();
+		synchronized (this) {
+			for (CommandStats s : stats.values()) {
+				out.add(s);
+			}
+		}
+		out.sort(BY_NAME);
+	}
+
+	/**
+	 * @return How often a command was entered that does not exist.
+	 */
+	public synchronized long getUnknownCommands () {
+		return unknownCommands;
+	}
+
+	public synchronized void reset () {
+		stats.clear();
+		unknownCommands = 0;
+	}
+
+	/**
+	 * Counters and latency histogram of a single command, over all of its overloads.
+	 */
+	public static class CommandStats {
+		// bucket i holds latencies of less than 2^i ns, but at least 2^(i - 1) ns
+		private static final int BUCKETS = 64;
+
+		private final String name;
+		private final long[] buckets = new long[BUCKETS];
+		private long invocations, failures, badParameters;
+		private long totalNanos, maxNanos;
+
+		CommandStats (String name) {
+			this.name = name;
+		}
+
+		void record (long nanos, boolean success) {
+			nanos = Math.max(nanos, 0);
+			invocations++;
+			if (!success) {
+				failures++;
+			}
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+			buckets[Math.min(BUCKETS - Long.numberOfLeadingZeros(nanos), BUCKETS - 1)]++;
+		}
+
+		public String getName () {
+			return name;
+		}
+
+		/**
+		 * @return How often the command was run, including runs that failed.
+		 */
+		public synchronized long getInvocations () {
+			return invocations;
+		}
+
+		/**
+		 * @return How often the command threw an exception.
+		 */
+		public synchronized long getFailures () {
+			return failures;
+		}
+
+		/**
+		 * @return How often the command was not run because no overload accepted the arguments.
+		 */
+		public synchronized long getBadParameters () {
+			return badParameters;
+		}
+
+		public synchronized long getMeanNanos () {
+			return invocations == 0 ? 0 : totalNanos / invocations;
+		}
+
+		public synchronized long getMaxNanos () {
+			return maxNanos;
+		}
+
+		/**
+		 * @param percentile Between 0 and 1, e.g. 0.99 for the 99th percentile.
+		 * @return The approximate latency below which the given share of invocations finished, or 0 if there were none.
+		 */
+		public synchronized long getPercentileNanos (double percentile) {
+			if (invocations == 0) {
+				return 0;
+			}
+			long rank = Math.max(1, (long)Math.ceil(percentile * invocations));
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				long count = buckets[i];
+				if (seen + count >= rank) {
+					// interpolate within the bucket
+					long lower = i == 0 ? 0 : 1L << (i - 1);
+					long upper = i == 0 ? 0 : lower << 1;
+					long nanos = lower + (long)((upper - lower) * ((double)(rank - seen) / count));
+					return Math.min(nanos, maxNanos);
+				}
+				seen += count;
+			}
+			return maxNanos;
+		}
+	}
+}
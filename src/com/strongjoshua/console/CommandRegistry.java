@@ -0,0 +1,327 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.reflect.Annotation;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Method;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+import com.strongjoshua.console.annotation.AsyncCommand;
+import com.strongjoshua.console.annotation.ConsoleDoc;
+import com.strongjoshua.console.annotation.HiddenCommand;
+
+/**
+ * Index of all commands a {@link CommandExecutor} provides. It is built once when the executor is set, so executing a command is a
+ * lookup by lowercased name and number of arguments instead of a reflective scan of the executor's methods.
+ */
+public class CommandRegistry {
+	private static final String METHOD_HANDLE_FACTORY = "com.strongjoshua.console.MethodHandleInvoker$Factory";
+
+	private final CommandTrie<CommandGroup> groups = new CommandTrie<CommandGroup>();
+	private CommandExecutor executor;
+	private CommandInvoker.Factory invokerFactory = defaultInvokerFactory();
+	private final ArgumentConverters converters = new ArgumentConverters();
+	private int version;
+
+	/**
+	 * @return A {@link MethodHandleInvoker} factory where <code>java.lang.invoke</code> is available, otherwise
+	 * {@link ReflectionInvoker#FACTORY}.
+	 */
+	public static CommandInvoker.Factory defaultInvokerFactory () {
+		try {
+			Class<?> factory = ClassReflection.forName(METHOD_HANDLE_FACTORY);
+			return (CommandInvoker.Factory)ClassReflection.newInstance(factory);
+		} catch (Throwable t) {
+			return ReflectionInvoker.FACTORY;
+		}
+	}
+
+	/**
+	 * Sets how commands are invoked, rebuilding the index if an executor is already set.
+	 *
+	 * @param factory The factory to create an invoker per command with.
+	 */
+	public void setInvokerFactory (CommandInvoker.Factory factory) {
+		invokerFactory = factory;
+		rebuild();
+	}
+
+	/**
+	 * Sets the converter for command parameters of the given type, rebuilding the index if an executor is already set.
+	 *
+	 * @see ArgumentConverters#register(Class, ArgumentConverter)
+	 */
+	public void registerConverter (Class<?> type, ArgumentConverter converter) {
+		converters.register(type, converter);
+		rebuild();
+	}
+
+	private void rebuild () {
+		CommandExecutor exec = executor;
+		executor = null;
+		build(exec);
+	}
+
+	/**
+	 * Rebuilds the index for the given executor. Does nothing if the index was already built for it.
+	 *
+	 * @param exec The executor whose public methods become commands. May be null, which leaves the registry empty.
+	 */
+	public void build (CommandExecutor exec) {
+		if (exec == executor) {
+			return;
+		}
+		executor = exec;
+		version++;
+		groups.clear();
+		if (exec == null) {
+			return;
+		}
+
+		Annotation asyncExecutor = ClassReflection.getAnnotation(exec.getClass(), AsyncCommand.class);
+		boolean async = asyncExecutor != null && asyncExecutor.getAnnotation(AsyncCommand.class).value();
+		Method[] methods = ClassReflection.getMethods(exec.getClass());
+		for (Method method : methods) {
+			if (method.getDeclaringClass() == Object.class || method.isStatic()) {
+				continue;
+			}
+			CommandGroup group = groups.get(method.getName());
+			if (group == null) {
+				group = new CommandGroup(method.getName());
+				groups.put(method.getName(), group);
+			}
+			group.add(new Command(method, invokerFactory.create(method), converters, async));
+		}
+	}
+
+	/**
+	 * @return A number that changes whenever the index is rebuilt, so anything resolved against an older index can be detected.
+	 */
+	public int getVersion () {
+		return version;
+	}
+
+	/**
+	 * @return The executor this registry was built for.
+	 */
+	public CommandExecutor getExecutor () {
+		return executor;
+	}
+
+	/**
+	 * @param name The command name, in any case.
+	 * @return All overloads of the command, or null if no command of that name exists.
+	 */
+	public CommandGroup get (CharSequence name) {
+		return groups.get(name);
+	}
+
+	/**
+	 * @param name  Contains the command name, in any case.
+	 * @param start Index of the first character of the name.
+	 * @param end   Index after the last character of the name.
+	 * @return All overloads of the command, or null if no command of that name exists.
+	 */
+	public CommandGroup get (CharSequence name, int start, int end) {
+		return groups.get(name, start, end);
+	}
+
+	/**
+	 * Adds every command whose name starts with the prefix, ignoring case, to the array in alphabetical order.
+	 */
+	public void collect (CharSequence prefix, Array<CommandGroup> out) {
+		groups.collect(prefix, out);
+	}
+
+	/**
+	 * All overloads of one command name, grouped by their number of parameters.
+	 */
+	public static class CommandGroup {
+		private static final Array<Command> NONE = new Array<Command>(0);
+
+		private final String name;
+		private final Array<Array<Command>> byArity = new Array<Array<Command>>(4);
+		private boolean hidden = true;
+
+		CommandGroup (String name) {
+			this.name = name;
+		}
+
+		void add (Command command) {
+			int arity = command.getArity();
+			while (byArity.size <= arity) {
+				byArity.add(null);
+			}
+			if (byArity.get(arity) == null) {
+				byArity.set(arity, new Array<Command>(1));
+			}
+			byArity.get(arity).add(command);
+			hidden &= command.isHidden();
+		}
+
+		/**
+		 * @return The name of the command as declared by the first method registered for it.
+		 */
+		public String getName () {
+			return name;
+		}
+
+		/**
+		 * @return True if every overload is annotated with {@link HiddenCommand}.
+		 */
+		public boolean isHidden () {
+			return hidden;
+		}
+
+		/**
+		 * @param arity Number of arguments.
+		 * @return The overloads taking exactly that many arguments. Never null.
+		 */
+		public Array<Command> get (int arity) {
+			if (arity < 0 || arity >= byArity.size || byArity.get(arity) == null) {
+				return NONE;
+			}
+			return byArity.get(arity);
+		}
+
+		/**
+		 * @return The highest number of arguments any overload takes.
+		 */
+		public int getMaxArity () {
+			return byArity.size - 1;
+		}
+	}
+
+	/**
+	 * A single command method with its metadata resolved up front.
+	 */
+	public static class Command {
+		private final Method method;
+		private final CommandInvoker invoker;
+		private final Class<?>[] parameterTypes;
+		private final ArgumentConverter[] converters;
+		private final boolean hidden;
+		private final boolean async;
+		private final ConsoleDoc doc;
+
+		Command (Method method, CommandInvoker invoker, ArgumentConverters converters, boolean async) {
+			this.method = method;
+			this.invoker = invoker;
+			parameterTypes = method.getParameterTypes();
+			this.converters = new ArgumentConverter[parameterTypes.length];
+			for (int i = 0; i < parameterTypes.length; i++) {
+				this.converters[i] = converters.get(parameterTypes[i]);
+			}
+			hidden = method.isAnnotationPresent(HiddenCommand.class);
+			Annotation asyncAnnotation = method.getDeclaredAnnotation(AsyncCommand.class);
+			this.async = asyncAnnotation == null ? async : asyncAnnotation.getAnnotation(AsyncCommand.class).value();
+			Annotation annotation = method.getDeclaredAnnotation(ConsoleDoc.class);
+			doc = annotation == null ? null : annotation.getAnnotation(ConsoleDoc.class);
+		}
+
+		public Method getMethod () {
+			return method;
+		}
+
+		public String getName () {
+			return method.getName();
+		}
+
+		public CommandInvoker getInvoker () {
+			return invoker;
+		}
+
+		/**
+		 * Calls this command on the given executor.
+		 *
+		 * @see CommandInvoker#invoke(Object, Object[])
+		 */
+		public Object invoke (Object target, Object[] args) throws ReflectionException {
+			return invoker.invoke(target, args);
+		}
+
+		/**
+		 * Converts the command's arguments from a tokenized line.
+		 *
+		 * @param tokens     The tokenized line.
+		 * @param firstToken Index of the token holding the first argument.
+		 * @param args       Receives the converted arguments. Must hold at least {@link #getArity()} elements.
+		 * @return The index of the first argument that could not be converted, or -1 if all were.
+		 */
+		public int convertArguments (CommandTokenizer tokens, int firstToken, Object[] args) {
+			for (int i = 0; i < converters.length; i++) {
+				if (converters[i] == null) {
+					return i;
+				}
+				int token = firstToken + i;
+				Object value = converters[i].convert(tokens, tokens.getTokenStart(token), tokens.getTokenEnd(token));
+				if (value == ArgumentConverter.INVALID) {
+					return i;
+				}
+				args[i] = value;
+			}
+			return -1;
+		}
+
+		/**
+		 * Converts the command's arguments from ranges of a text.
+		 *
+		 * @param text   Holds all arguments.
+		 * @param starts Start index of each argument in the text.
+		 * @param ends   End index of each argument in the text.
+		 * @param args   Receives the converted arguments. Must hold at least {@link #getArity()} elements.
+		 * @return The index of the first argument that could not be converted, or -1 if all were.
+		 */
+		public int convertArguments (CharSequence text, int[] starts, int[] ends, Object[] args) {
+			for (int i = 0; i < converters.length; i++) {
+				if (converters[i] == null) {
+					return i;
+				}
+				Object value = converters[i].convert(text, starts[i], ends[i]);
+				if (value == ArgumentConverter.INVALID) {
+					return i;
+				}
+				args[i] = value;
+			}
+			return -1;
+		}
+
+		public Class<?>[] getParameterTypes () {
+			return parameterTypes;
+		}
+
+		public int getArity () {
+			return parameterTypes.length;
+		}
+
+		public boolean isHidden () {
+			return hidden;
+		}
+
+		/**
+		 * @return True if the command runs in the background, see {@link AsyncCommand}.
+		 */
+		public boolean isAsync () {
+			return async;
+		}
+
+		/**
+		 * @return The command's {@link ConsoleDoc}, or null if it has none.
+		 */
+		public ConsoleDoc getDoc () {
+			return doc;
+		}
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.Array;
+import com.strongjoshua.console.CommandRegistry.Command;
+
+/**
+ * A script file parsed into the commands it runs, with every command's overload already resolved. Built and cached by
+ * {@link AbstractConsole#execScript(com.badlogic.gdx.files.FileHandle)}, and reused as long as the file and the registered commands
+ * stay the same.
+ */
+public class CommandScript {
+	final String path;
+	final long lastModified;
+	final long length;
+	final int registryVersion;
+	final int aliasVersion;
+	final Array<Step> steps = new Array<Step>();
+
+	CommandScript (String path, long lastModified, long length, int registryVersion, int aliasVersion) {
+		this.path = path;
+		this.lastModified = lastModified;
+		this.length = length;
+		this.registryVersion = registryVersion;
+		this.aliasVersion = aliasVersion;
+	}
+
+	boolean isCurrent (long lastModified, long length, int registryVersion, int aliasVersion) {
+		return this.lastModified == lastModified && this.length == length && this.registryVersion == registryVersion
+			&& this.aliasVersion == aliasVersion;
+	}
+
+	/**
+	 * @return The number of commands and errors in the script.
+	 */
+	public int getStepCount () {
+		return steps.size;
+	}
+
+	/**
+	 * A resolved command or {@link CommandAlias} on a line of a script or alias, or the error that prevented resolving it.
+	 */
+	static class Step {
+		final int line;
+		final String text;
+		final Command command;
+		final CommandAlias alias;
+		// arguments are converted again on every run, so commands never share argument instances
+		final String tokens;
+		final int[] argumentStarts, argumentEnds;
+		final String error;
+
+		Step (int line, String text, Command command, CommandTokenizer tokens, int firstArgument) {
+			this.line = line;
+			this.text = text;
+			this.command = command;
+			this.tokens = tokens.toString();
+			int arity = command.getArity();
+			argumentStarts = new int[arity];
+			argumentEnds = new int[arity];
+			for (int i = 0; i < arity; i++) {
+				argumentStarts[i] = tokens.getTokenStart(firstArgument + i);
+				argumentEnds[i] = tokens.getTokenEnd(firstArgument + i);
+			}
+			alias = null;
+			error = null;
+		}
+
+		Step (int line, String text, CommandAlias alias) {
+			this.line = line;
+			this.text = text;
+			this.alias = alias;
+			command = null;
+			tokens = null;
+			argumentStarts = argumentEnds = null;
+			error = null;
+		}
+
+		Step (int line, String text, String error) {
+			this.line = line;
+			this.text = text;
+			this.error = error;
+			command = null;
+			alias = null;
+			tokens = null;
+			argumentStarts = argumentEnds = null;
+		}
+	}
+}
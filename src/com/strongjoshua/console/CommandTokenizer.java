@@ -0,0 +1,214 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.strongjoshua.console;
+
+/**
+ * Splits a command line into commands and their arguments without allocating: the unescaped text of all tokens is written into one
+ * reusable character buffer, which this class exposes as a {@link CharSequence}, and tokens are stored as ranges of it.
+ * <p>
+ * Tokens are separated by whitespace. Text in double quotes is kept together and may be empty, as is text in single quotes that
+ * start a token; other single quotes are kept, so <code>say don't</code> works as typed. An unquoted <code>;</code> separates
+ * commands, so <code>say "hello world"; spawn orc 2</code> is two commands.
+ * <p>
+ * A backslash only escapes a following quote, backslash or <code>;</code>. Any other backslash is kept, so Windows paths such as
+ * <code>printLog C:\logs\out.txt</code> work as typed. Instances are reused by calling {@link #tokenize(CharSequence)} again.
+ */
+public class CommandTokenizer implements CharSequence {
+	private char[] chars = new char[64];
+	private int length;
+
+	private int[] tokenStarts = new int[8], tokenEnds = new int[8];
+	private int tokenCount;
+	private int[] commandStarts = new int[4];
+	private int commandCount;
+
+	private String error;
+
+	/**
+	 * Tokenizes the given line, replacing the previous result.
+	 *
+	 * @return False if the line is malformed, see {@link #getError()}. The commands before the error are still tokenized, but the
+	 * console runs none of the commands of a malformed line.
+	 */
+	public boolean tokenize (CharSequence line) {
+		length = tokenCount = commandCount = 0;
+		error = null;
+
+		int commandStart = 0;
+		boolean inToken = false;
+		char quote = 0;
+		for (int i = 0, n = line.length(); i < n; i++) {
+			char c = line.charAt(i);
+			if (c == '\\') {
+				if (i + 1 < n && isEscapable(line.charAt(i + 1))) {
+					c = line.charAt(++i);
+				}
+				append(c);
+				inToken = true;
+			} else if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				} else {
+					append(c);
+				}
+			} else if (c == '"' || c == '\'' && !inToken) {
+				quote = c;
+				inToken = true;
+			} else if (c <= ' ') {
+				if (inToken) {
+					endToken();
+					inToken = false;
+				}
+			} else if (c == ';') {
+				if (inToken) {
+					endToken();
+					inToken = false;
+				}
+				commandStart = endCommand(commandStart);
+			} else {
+				append(c);
+				inToken = true;
+			}
+		}
+
+		if (quote != 0) {
+			error = "Missing closing quote.";
+		}
+		if (error != null) {
+			// drop the unfinished command
+			tokenCount = commandStart;
+			return false;
+		}
+		if (inToken) {
+			endToken();
+		}
+		endCommand(commandStart);
+		return true;
+	}
+
+	private static boolean isEscapable (char c) {
+		return c == '"' || c == '\'' || c == '\\' || c == ';';
+	}
+
+	private void append (char c) {
+		if (length == chars.length) {
+			char[] grown = new char[length * 2];
+			System.arraycopy(chars, 0, grown, 0, length);
+			chars = grown;
+		}
+		chars[length++] = c;
+	}
+
+	private void endToken () {
+		if (tokenCount == tokenStarts.length) {
+			tokenStarts = grow(tokenStarts);
+			tokenEnds = grow(tokenEnds);
+		}
+		tokenStarts[tokenCount] = tokenCount == 0 ? 0 : tokenEnds[tokenCount - 1];
+		tokenEnds[tokenCount] = length;
+		tokenCount++;
+	}
+
+	/**
+	 * @return The first token index of the next command.
+	 */
+	private int endCommand (int commandStart) {
+		if (tokenCount == commandStart) {
+			return commandStart;
+		}
+		if (commandCount == commandStarts.length) {
+			commandStarts = grow(commandStarts);
+		}
+		commandStarts[commandCount++] = commandStart;
+		return tokenCount;
+	}
+
+	private static int[] grow (int[] array) {
+		int[] grown = new int[array.length * 2];
+		System.arraycopy(array, 0, grown, 0, array.length);
+		return grown;
+	}
+
+	/**
+	 * @return Why the last line could not be tokenized, or null if it could.
+	 */
+	public String getError () {
+		return error;
+	}
+
+	/**
+	 * @return The number of non-empty commands in the line.
+	 */
+	public int getCommandCount () {
+		return commandCount;
+	}
+
+	/**
+	 * @return The index of the token holding the command's name. Its arguments are the tokens that follow.
+	 */
+	public int getCommandToken (int command) {
+		return commandStarts[command];
+	}
+
+	/**
+	 * @return The number of arguments the command was given, not counting its name.
+	 */
+	public int getArgumentCount (int command) {
+		int end = command + 1 < commandCount ? commandStarts[command + 1] : tokenCount;
+		return end - commandStarts[command] - 1;
+	}
+
+	public int getTokenCount () {
+		return tokenCount;
+	}
+
+	/**
+	 * @return The index in this sequence where the token starts.
+	 */
+	public int getTokenStart (int token) {
+		return tokenStarts[token];
+	}
+
+	/**
+	 * @return The index in this sequence after the last character of the token.
+	 */
+	public int getTokenEnd (int token) {
+		return tokenEnds[token];
+	}
+
+	/**
+	 * @return A new string holding the token's text.
+	 */
+	public String getToken (int token) {
+		return new String(chars, tokenStarts[token], tokenEnds[token] - tokenStarts[token]);
+	}
+
+	@Override public int length () {
+		return length;
+	}
+
+	@Override public char charAt (int index) {
+		if (index >= length) {
+			throw new IndexOutOfBoundsException(String.valueOf(index));
+		}
+		return chars[index];
+	}
+
+	@Override public CharSequence subSequence (int start, int end) {
+		return new String(chars, start, end - start);
+	}
+
+	@Override public String toString () {
+		return new String(chars, 0, length);
+	}
+}
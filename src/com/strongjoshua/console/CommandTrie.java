@@ -0,0 +1,157 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A case-insensitive prefix trie with children kept in sorted order. Used to look up commands by name without creating lowercase
+ * copies of the input, and to list all names starting with a prefix in alphabetical order.
+ *
+ * @param <V> The value stored per name.
+ */
+public class CommandTrie<V> {
+	private final Node<V> root = new Node<V>();
+	private int size;
+
+	/**
+	 * Associates the value with the key, replacing any previous value.
+	 */
+	public void put (CharSequence key, V value) {
+		Node<V> node = root;
+		for (int i = 0, n = key.length(); i < n; i++) {
+			node = node.getOrAdd(Character.toLowerCase(key.charAt(i)));
+		}
+		if (node.value == null) {
+			size++;
+		}
+		node.value = value;
+	}
+
+	/**
+	 * @return The value for the key, ignoring case, or null if there is none.
+	 */
+	public V get (CharSequence key) {
+		return get(key, 0, key.length());
+	}
+
+	/**
+	 * Looks up the characters from start (inclusive) to end (exclusive) of the given sequence.
+	 *
+	 * @return The value for that key, ignoring case, or null if there is none.
+	 */
+	public V get (CharSequence key, int start, int end) {
+		Node<V> node = find(key, start, end);
+		return node == null ? null : node.value;
+	}
+
+	/**
+	 * Adds the values of all keys starting with the given prefix to the array, in alphabetical order of their keys.
+	 */
+	public void collect (CharSequence prefix, Array<V> out) {
+		Node<V> node = find(prefix, 0, prefix.length());
+		if (node != null) {
+			collect(node, out);
+		}
+	}
+
+	private void collect (Node<V> node, Array<V> out) {
+		if (node.value != null) {
+			out.add(node.value);
+		}
+		for (int i = 0; i < node.size; i++) {
+			collect(node.children[i], out);
+		}
+	}
+
+	private Node<V> find (CharSequence key, int start, int end) {
+		Node<V> node = root;
+		for (int i = start; i < end && node != null; i++) {
+			node = node.get(Character.toLowerCase(key.charAt(i)));
+		}
+		return node;
+	}
+
+	public int size () {
+		return size;
+	}
+
+	public void clear () {
+		root.clear();
+		size = 0;
+	}
+
+	private static class Node<V> {
+		private char[] keys = new char[0];
+		private Node<V>[] children;
+		private int size;
+		private V value;
+
+		Node<V> get (char c) {
+			int index = indexOf(c);
+			return index < 0 ? null : children[index];
+		}
+
+		@SuppressWarnings("unchecked") Node<V> getOrAdd (char c) {
+			int index = indexOf(c);
+			if (index >= 0) {
+				return children[index];
+			}
+			index = -(index + 1);
+			if (size == keys.length) {
+				int capacity = Math.max(2, size * 2);
+				char[] newKeys = new char[capacity];
+				Node<V>[] newChildren = (Node<V>[])new Node<?>[capacity];
+				System.arraycopy(keys, 0, newKeys, 0, size);
+				if (children != null) {
+					System.arraycopy(children, 0, newChildren, 0, size);
+				}
+				keys = newKeys;
+				children = newChildren;
+			}
+			System.arraycopy(keys, index, keys, index + 1, size - index);
+			System.arraycopy(children, index, children, index + 1, size - index);
+			Node<V> child = new Node<V>();
+			keys[index] = c;
+			children[index] = child;
+			size++;
+			return child;
+		}
+
+		/**
+		 * @return The index of the child for the character, or <code>-(insertion point + 1)</code> if there is none.
+		 */
+		private int indexOf (char c) {
+			int low = 0, high = size - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				char key = keys[mid];
+				if (key < c) {
+					low = mid + 1;
+				} else if (key > c) {
+					high = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -(low + 1);
+		}
+
+		void clear () {
+			keys = new char[0];
+			children = null;
+			size = 0;
+			value = null;
+		}
+	}
+}
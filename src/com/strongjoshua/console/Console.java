@@ -111,7 +111,7 @@ public interface Console {
 	void refresh (boolean retain);
 
 	/**
-	 * Logs a new entry to the console.
+	 * Logs a new entry to the console. Can be called from any thread.
 	 *
 	 * @param msg   The message to be logged.
 	 * @param level The {@link LogLevel} of the log entry.
@@ -119,6 +119,72 @@ public interface Console {
 	 */
 	void log (String msg, LogLevel level);
 
+	/**
+	 * Entries logged from threads other than the one that created the console are queued and added to the log when the console is
+	 * drawn (or, for a {@link HeadlessConsole}, by its consumer thread). This limits how many queued entries are added per frame;
+	 * the rest stay queued for the next frame.
+	 *
+	 * @param limit Maximum number of queued entries added per frame, or {@link Console#UNLIMITED_ENTRIES} (the default).
+	 */
+	void setLogDrainLimit (int limit);
+
+	/**
+	 * Adds a sink that receives every entry stored in the log from now on. The sink is disposed together with the console.
+	 */
+	void addLogSink (LogSink sink);
+
+	/**
+	 * Removes a sink added with {@link #addLogSink(LogSink)} without disposing it.
+	 */
+	void removeLogSink (LogSink sink);
+
+	/**
+	 * Entries of a less severe level are dropped before they are stored or formatted. Defaults to {@link LogLevel#DEFAULT}, which
+	 * stores everything.
+	 *
+	 * @param level The least severe level to store, see {@link LogLevel#getSeverity()}.
+	 */
+	void setMinLogLevel (LogLevel level);
+
+	/**
+	 * Hides or shows the entries of a level in the console window without removing them from the log. Has no effect on consoles
+	 * without a window.
+	 */
+	void setLogLevelDisplayed (LogLevel level, boolean displayed);
+
+	/**
+	 * @return False if entries of the level are hidden, see {@link #setLogLevelDisplayed(LogLevel, boolean)}.
+	 */
+	boolean isLogLevelDisplayed (LogLevel level);
+
+	/**
+	 * Logs a new entry whose text is the pattern with each <code>{}</code> replaced by the next argument. Nothing is formatted if
+	 * the level is less severe than the minimum, see {@link #setMinLogLevel(LogLevel)}.
+	 *
+	 * @param level   The {@link LogLevel} of the log entry.
+	 * @param pattern The message, with <code>{}</code> as placeholders.
+	 * @param arg     The value for the first placeholder.
+	 */
+	void log (LogLevel level, String pattern, Object arg);
+
+	/**
+	 * @see #log(LogLevel, String, Object)
+	 */
+	void log (LogLevel level, String pattern, Object arg1, Object arg2);
+
+	/**
+	 * @see #log(LogLevel, String, Object)
+	 */
+	void log (LogLevel level, String pattern, Object... args);
+
+	/**
+	 * Logs a new entry whose text is only built if its level is at least the minimum, see {@link #setMinLogLevel(LogLevel)}.
+	 *
+	 * @param level   The {@link LogLevel} of the log entry.
+	 * @param message Writes the text of the entry.
+	 */
+	void log (LogLevel level, LogMessage message);
+
 	/**
 	 * Logs a new entry to the console using {@link LogLevel#DEFAULT}.
 	 *
@@ -143,6 +209,42 @@ public interface Console {
 	 */
 	void log (Throwable exception, LogLevel level);
 
+	/**
+	 * Enables a word index of the log, which makes {@link #find(String)} fast for large logs. The index is bounded to
+	 * {@link LogIndex#DEFAULT_MAX_POSTINGS} word occurrences; older entries are still found, but by scanning them.
+	 *
+	 * @param enabled If the log should be indexed. Disabled by default.
+	 */
+	void setLogIndexEnabled (boolean enabled);
+
+	/**
+	 * Enables compressing old entries of a log without a maximum number of entries, see {@link Log#setCompressionEnabled(boolean)}.
+	 *
+	 * @param enabled If old entries should be compressed. Disabled by default.
+	 */
+	void setLogCompressionEnabled (boolean enabled);
+
+	/**
+	 * Enables collapsing a message logged several times in a row into one entry with a repeat count, e.g. "texture missing (x42)",
+	 * which is updated in place. See {@link Log#setCollapseRepeats(boolean)}.
+	 *
+	 * @param collapse If repeated messages should be collapsed. Disabled by default.
+	 */
+	void setCollapseRepeats (boolean collapse);
+
+	/**
+	 * Searches the log for entries containing every word of the query, ignoring case. Commands typed into the console are not
+	 * searched. The GUI console highlights the matches and scrolls to the newest one; calling it again with the same query scrolls
+	 * to the next older match.<br>
+	 * There is no built-in command for it, so that it cannot collide with the commands of an executor; declare one that calls this
+	 * method to search from the console. A query of several words must then be typed in quotes, e.g. <code>find "orc died"</code>,
+	 * as each word would otherwise be a separate argument.
+	 *
+	 * @param query The words to search for.
+	 * @return The number of matching entries.
+	 */
+	int find (String query);
+
 	/**
 	 * Prints all log entries to the given file. Log entries include logs in the code and commands made from within in the console
 	 * while the program is running.<br>
@@ -166,6 +268,24 @@ public interface Console {
 	 */
 	void printLogToFile (FileHandle fh);
 
+	/**
+	 * Prints all log entries to the given file, see {@link #printLogToFile(FileHandle)}.
+	 *
+	 * @param fh            The {@link FileHandle} that links to the file to be written to.
+	 * @param expandRepeats If collapsed repeats are written as one line per repeat instead of one line with the repeat count. See
+	 *                      {@link #setCollapseRepeats(boolean)}.
+	 */
+	void printLogToFile (FileHandle fh, boolean expandRepeats);
+
+	/**
+	 * If enabled, {@link Console#printLogToFile(FileHandle)} copies the current entries and writes them to the file on a
+	 * background thread, so the render thread is not stalled by large logs. Success or failure is logged once the file has been
+	 * written.
+	 *
+	 * @param enabled If log files should be written in the background. Disabled by default.
+	 */
+	void setPrintLogInBackground (boolean enabled);
+
 	/**
 	 * Prints all commands
 	 */
@@ -212,12 +332,120 @@ public interface Console {
 	void setCommandExecutor (CommandExecutor commandExec);
 
 	/**
-	 * Executes the specified command via the set {@link CommandExecutor}.
+	 * Sets how command parameters of the given type are converted from their text. Strings, booleans, numbers, enums,
+	 * {@link com.badlogic.gdx.math.Vector2} and {@link com.badlogic.gdx.graphics.Color} are supported by default; commands with
+	 * parameters of other types can only be executed once a converter is registered for them.
+	 *
+	 * @param type      The exact parameter type.
+	 * @param converter The converter to use, or null to remove it.
+	 * @see ArgumentConverters
+	 */
+	void registerArgumentConverter (Class<?> type, ArgumentConverter converter);
+
+	/**
+	 * Executes the specified command via the set {@link CommandExecutor}. Commands annotated with
+	 * {@link com.strongjoshua.console.annotation.AsyncCommand} only start here and finish in the background.
 	 *
 	 * @param command The command to execute.
 	 */
 	void execCommand (String command);
 
+	/**
+	 * Executes the specified command like {@link #execCommand(String)}, and writes every entry it logs on the console's thread to
+	 * the given sink, in addition to the log. This also applies if the command is queued by
+	 * {@link #setCommandFrameBudget(long)} and runs later.
+	 *
+	 * @param command The command to execute.
+	 * @param output  Receives the command's entries. May be null.
+	 */
+	void execCommand (String command, LogSink output);
+
+	/**
+	 * Limits how long submitted commands may run per frame. If enabled, {@link #execCommand(String)} and
+	 * {@link #execScript(FileHandle)} queue their commands, and {@link #draw()} runs them in order until the budget is used up.
+	 * Commands that do not fit wait for the next frame; at least one runs per frame. Scripts run one command at a time. Commands run
+	 * by other commands are never queued.<br>
+	 * {@link HeadlessConsole} has nothing to draw, but {@link #draw()} must still be called every frame to run queued commands.
+	 *
+	 * @param nanos The time budget per frame in nanoseconds, or 0 to run commands right away. 0 by default.
+	 */
+	void setCommandFrameBudget (long nanos);
+
+	/**
+	 * @return The number of commands and scripts waiting to run.
+	 * @see #setCommandFrameBudget(long)
+	 */
+	int getQueuedCommandCount ();
+
+	/**
+	 * @return How many queued commands and scripts had to wait for a later frame because the budget was used up, in total. Each
+	 * is counted once, however many frames it waited.
+	 * @see #setCommandFrameBudget(long)
+	 */
+	long getSpilledCommandCount ();
+
+	/**
+	 * Runs a script file from the local storage.
+	 *
+	 * @param file The relative path of the local file to run.
+	 * @see #execScript(FileHandle)
+	 */
+	void execScript (String file);
+
+	/**
+	 * Runs every command in a script file, in order. Commands are written one per line, or separated by <code>;</code>, exactly
+	 * as they would be typed into the console. Lines starting with <code>#</code> are ignored. Errors are logged with their line
+	 * number, and the remaining commands still run.<br>
+	 * The parsed script is cached, so running the same file again skips parsing it unless the file or the commands changed.
+	 *
+	 * @param file The script to run.
+	 */
+	void execScript (FileHandle file);
+
+	/**
+	 * Defines a name that runs a sequence of commands, for example <code>setAlias("god", "sethealth 9999; setinvuln true")</code>.
+	 * The commands are resolved now, so running the alias does not parse them again. Aliases can run other aliases, but not
+	 * themselves. Errors are logged.
+	 *
+	 * @param name     The alias name. A single word, case-insensitive, that is not already a command.
+	 * @param commands The commands to run, separated by <code>;</code>. They take no arguments from the alias.
+	 * @return False if the alias could not be defined, for example because a command does not exist.
+	 */
+	boolean setAlias (String name, String commands);
+
+	/**
+	 * @param name The alias name, in any case.
+	 * @return False if no alias of that name was defined.
+	 */
+	boolean removeAlias (String name);
+
+	/**
+	 * Prints all aliases and the commands they run.
+	 */
+	void printAliases ();
+
+	/**
+	 * @return The number of {@link com.strongjoshua.console.annotation.AsyncCommand}s that were started but have not finished yet.
+	 */
+	int getPendingCommandCount ();
+
+	/**
+	 * Enables recording how often each command runs, fails and how long it takes. Disabled by default, in which case executing
+	 * commands does no extra work. Disabling discards the recorded metrics.
+	 */
+	void setCommandMetricsEnabled (boolean enabled);
+
+	/**
+	 * @return The recorded command metrics, or null if they are disabled.
+	 * @see #setCommandMetricsEnabled(boolean)
+	 */
+	CommandMetrics getCommandMetrics ();
+
+	/**
+	 * Prints the recorded metrics of every command, including latency percentiles, to the console.
+	 */
+	void printCommandMetrics ();
+
 	/**
 	 * Returns if the given screen coordinates hit the console.
 	 *
@@ -14,6 +14,8 @@
 package com.strongjoshua.console;
 
 import com.badlogic.gdx.utils.reflect.Method;
+import com.strongjoshua.console.CommandRegistry.Command;
+import com.strongjoshua.console.CommandRegistry.CommandGroup;
 import com.strongjoshua.console.annotation.HiddenCommand;
 
 /**
@@ -28,6 +30,67 @@ public final class ConsoleUtils {
 		return console.isDisplayHiddenCommandsEnabled() || !method.isAnnotationPresent(HiddenCommand.class);
 	}
 
+	public static boolean canExecuteCommand (Console console, Command command) {
+		return console.isExecuteHiddenCommandsEnabled() || !command.isHidden();
+	}
+
+	public static boolean canDisplayCommand (Console console, Command command) {
+		return console.isDisplayHiddenCommandsEnabled() || !command.isHidden();
+	}
+
+	public static boolean canExecuteCommand (Console console, CommandGroup group) {
+		return console.isExecuteHiddenCommandsEnabled() || !group.isHidden();
+	}
+
+	public static boolean canDisplayCommand (Console console, CommandGroup group) {
+		return console.isDisplayHiddenCommandsEnabled() || !group.isHidden();
+	}
+
+	/**
+	 * Appends the pattern with each <code>{}</code> replaced by the next argument. Placeholders without an argument are kept as
+	 * they are. Numbers, booleans, characters and char sequences are appended without creating a string.
+	 *
+	 * @param arg1  The first argument, if <code>args</code> is null.
+	 * @param arg2  The second argument, if <code>args</code> is null.
+	 * @param args  All arguments, or null to use <code>arg1</code> and <code>arg2</code>.
+	 * @param count The number of arguments.
+	 */
+	static void format (StringBuilder out, String pattern, Object arg1, Object arg2, Object[] args, int count) {
+		int argument = 0;
+		int start = 0;
+		while (true) {
+			int placeholder = argument < count ? pattern.indexOf("{}", start) : -1;
+			if (placeholder < 0) {
+				out.append(pattern, start, pattern.length());
+				return;
+			}
+			out.append(pattern, start, placeholder);
+			appendArgument(out, args != null ? args[argument] : argument == 0 ? arg1 : arg2);
+			argument++;
+			start = placeholder + 2;
+		}
+	}
+
+	private static void appendArgument (StringBuilder out, Object arg) {
+		if (arg instanceof CharSequence) {
+			out.append((CharSequence)arg);
+		} else if (arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+			out.append(((Number)arg).intValue());
+		} else if (arg instanceof Long) {
+			out.append(((Long)arg).longValue());
+		} else if (arg instanceof Float) {
+			out.append(((Float)arg).floatValue());
+		} else if (arg instanceof Double) {
+			out.append(((Double)arg).doubleValue());
+		} else if (arg instanceof Boolean) {
+			out.append(((Boolean)arg).booleanValue());
+		} else if (arg instanceof Character) {
+			out.append(((Character)arg).charValue());
+		} else {
+			out.append(arg);
+		}
+	}
+
 	public static String exceptionToString (final Throwable throwable) {
 		StringBuilder result = new StringBuilder();
 		Throwable cause = throwable;
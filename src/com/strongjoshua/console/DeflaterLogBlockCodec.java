@@ -0,0 +1,81 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * {@link LogBlockCodec} that compresses blocks with {@link Deflater}. Excluded from the GWT module.
+ */
+public class DeflaterLogBlockCodec extends LogBlockCodec {
+	// both hold native zlib memory until ended, so they are only created when needed
+	private Deflater deflater;
+	private Inflater inflater;
+	private byte[] buffer = new byte[8192];
+
+	@Override public byte[] pack (byte[] data, int length) {
+		Deflater deflater = this.deflater;
+		if (deflater == null) {
+			// log text compresses well even at the fastest level, and sealing happens on the thread that logs
+			deflater = this.deflater = new Deflater(Deflater.BEST_SPEED);
+		}
+		deflater.reset();
+		deflater.setInput(data, 0, length);
+		deflater.finish();
+		int packed = 0;
+		while (!deflater.finished()) {
+			if (packed == buffer.length) {
+				byte[] grown = new byte[buffer.length * 2];
+				System.arraycopy(buffer, 0, grown, 0, packed);
+				buffer = grown;
+			}
+			packed += deflater.deflate(buffer, packed, buffer.length - packed);
+		}
+		byte[] result = new byte[packed];
+		System.arraycopy(buffer, 0, result, 0, packed);
+		return result;
+	}
+
+	@Override public void unpack (byte[] packed, byte[] out, int length) {
+		Inflater inflater = this.inflater;
+		if (inflater == null) {
+			inflater = this.inflater = new Inflater();
+		}
+		inflater.reset();
+		inflater.setInput(packed);
+		try {
+			int unpacked = 0;
+			while (unpacked < length && !inflater.finished()) {
+				unpacked += inflater.inflate(out, unpacked, length - unpacked);
+			}
+		} catch (DataFormatException e) {
+			throw new GdxRuntimeException("Corrupt log block", e);
+		}
+	}
+
+	@Override public void dispose () {
+		if (deflater != null) {
+			deflater.end();
+			deflater = null;
+		}
+		if (inflater != null) {
+			inflater.end();
+			inflater = null;
+		}
+	}
+}
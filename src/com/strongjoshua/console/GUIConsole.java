@@ -28,7 +28,7 @@ import com.badlogic.gdx.scenes.scene2d.ui.TextField.TextFieldStyle;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.DragScrollListener;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.SnapshotArray;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
 
@@ -43,6 +43,8 @@ public class GUIConsole extends AbstractConsole {
 
 	private ConsoleDisplay display;
 	private boolean hidden = true;
+	private String lastQuery;
+	private long lastFound = -1;
     private boolean usesMultiplexer;
 	private InputProcessor appInput;
 	private InputMultiplexer multiplexer;
@@ -190,14 +192,47 @@ public class GUIConsole extends AbstractConsole {
 	@Override public void setMaxEntries (int numEntries) {
 		if (numEntries > 0 || numEntries == UNLIMITED_ENTRIES) {
 			log.setMaxEntries(numEntries);
+			display.invalidate(true);
 		} else {
 			throw new IllegalArgumentException("Maximum entries must be greater than 0 or use Console.UNLIMITED_ENTRIES.");
 		}
 	}
 
+	@Override public void setLogLevelDisplayed (LogLevel level, boolean displayed) {
+		display.keepPosition();
+		display.logEntries.setLevelShown(level, displayed);
+		display.invalidate(false);
+	}
+
+	@Override public boolean isLogLevelDisplayed (LogLevel level) {
+		return display.logEntries.isLevelShown(level);
+	}
+
 	@Override public void clear () {
-		log.getLogEntries().clear();
-		display.refresh();
+		log.clear();
+		display.invalidate(true);
+	}
+
+	@Override public int find (String query) {
+		int found = super.find(query);
+		display.logEntries.setMatches(findResults);
+		if (found == 0) {
+			lastFound = -1;
+			return 0;
+		}
+		// repeating a search moves to the next older match, wrapping around to the newest
+		long before = query.equals(lastQuery) && lastFound >= 0 ? lastFound : Long.MAX_VALUE;
+		long target = findResults.peek();
+		for (int i = found - 1; i >= 0; i--) {
+			if (findResults.get(i) < before) {
+				target = findResults.get(i);
+				break;
+			}
+		}
+		lastQuery = query;
+		lastFound = target;
+		display.scrollTo(target);
+		return found;
 	}
 
 	@Override public void setSize (int width, int height) {
@@ -274,9 +309,13 @@ public class GUIConsole extends AbstractConsole {
 	}
 
 	@Override public void draw () {
+		drainLogQueue(logDrainLimit);
 		if (disabled) {
 			return;
 		}
+		runQueuedCommands();
+		display.flush();
+		display.showPending(getPendingCommandCount());
 		stage.act();
 
 		if (hidden) {
@@ -306,9 +345,9 @@ public class GUIConsole extends AbstractConsole {
 		}
 	}
 
-	@Override public void log (String msg, LogLevel level) {
-		super.log(msg, level);
-		display.refresh();
+	@Override protected void addEntry (CharSequence msg, LogLevel level) {
+		super.addEntry(msg, level);
+		display.invalidate(false);
 	}
 
 	@Override public void setDisabled (boolean disabled) {
@@ -342,6 +381,7 @@ public class GUIConsole extends AbstractConsole {
 			Gdx.input.setInputProcessor(appInput);
 		}
 		stage.dispose();
+		super.dispose();
 	}
 
 	@Override public boolean isVisible () {
@@ -401,15 +441,23 @@ public class GUIConsole extends AbstractConsole {
 	}
 
 	private class ConsoleDisplay {
-		private Table root, logEntries;
+		private Table root;
+		private LogView logEntries;
 		private TextField input;
 		private TextButton submit;
 		private Skin skin;
-		private Array<Label> labels;
 		private String fontName;
 		private boolean selected = true;
 		private ConsoleContext context;
 		private Cell<TextButton> submitCell;
+		private boolean dirty, rebuild;
+		private int shownPending;
+		private long scrollTarget = -1;
+		private boolean following = true, followOutput, anchored;
+		private float flushedScrollY;
+		private long anchor;
+		private float anchorOffset;
+		private final CommandTokenizer submitTokens = new CommandTokenizer();
 
 		ConsoleDisplay (Skin skin) {
 			try {
@@ -428,13 +476,15 @@ public class GUIConsole extends AbstractConsole {
 			TextFieldStyle tfs = skin.get(TextFieldStyle.class);
 			tfs.font = skin.getFont(fontName);
 
-			labels = new Array<Label>();
+			logEntries = new LogView(log, new Pool<Label>() {
+				@Override protected Label newObject () {
+					return newLabel();
+				}
 
-			try {
-				logEntries = ClassReflection.newInstance(tableClass);
-			} catch (Exception e) {
-				throw new RuntimeException("Table class does not support empty constructor.");
-			}
+				@Override protected void reset (Label l) {
+					l.getStyle().background = null;
+				}
+			});
 
 			try {
 				input = (TextField) ClassReflection.getConstructor(textFieldClass, String.class, TextFieldStyle.class)
@@ -490,43 +540,102 @@ public class GUIConsole extends AbstractConsole {
 			root.addListener(new KeyListener(input));
 		}
 
-		void refresh () {
-			Array<LogEntry> entries = log.getLogEntries();
-			logEntries.clear();
-
-			// expand first so labels start at the bottom
-			logEntries.add().expand().fill().row();
-			int size = entries.size;
-			for (int i = 0; i < size; i++) {
-				LogEntry le = entries.get(i);
-				Label l;
-				// recycle the labels so we don't create new ones every refresh
-				if (labels.size > i) {
-					l = labels.get(i);
-				} else {
-					try {
-						l = (Label) ClassReflection.getConstructor(labelClass, CharSequence.class, Skin.class, String.class, Color.class)
-								.newInstance("", skin, fontName, LogLevel.DEFAULT.getColor());
-					} catch (Exception e) {
-						try {
-							l = (Label) ClassReflection.getConstructor(labelClass, CharSequence.class, String.class, Color.class)
-									.newInstance("", fontName, LogLevel.DEFAULT.getColor());
-						} catch (Exception e2) {
-							throw new RuntimeException(
-								"Label class does not support either (<String>, <Skin>, <String>, <Color>) or (<String>, <String>, <Color>) constructors.");
-						}
-					}
-					l.setWrap(true);
-					labels.add(l);
-					l.addListener(new LogListener(l, skin.getDrawable(tableBackground)));
-				}
-				// I'm not sure about the extra space, but it makes the label highlighting look much better with VisUI
-				l.setText(" " + le.toConsoleString());
-				l.setColor(le.getColor());
-				logEntries.add(l).expandX().fillX().top().left().row();
+		/**
+		 * Marks the log view as out of date. It is brought up to date once per frame in {@link GUIConsole#draw()}, no matter how
+		 * many entries were logged in between.
+		 *
+		 * @param rebuild True if all rows must be measured again, false if entries were only appended or evicted.
+		 */
+		void invalidate (boolean rebuild) {
+			dirty = true;
+			this.rebuild |= rebuild;
+		}
+
+		void flush () {
+			if (!dirty) {
+				return;
 			}
+			keepPosition();
+			if (rebuild) {
+				logEntries.rebuild();
+			} else {
+				logEntries.update();
+			}
+			dirty = rebuild = anchored = false;
 			scroll.validate();
-			scroll.setScrollPercentY(1);
+			if (scrollTarget >= 0) {
+				float top = logEntries.getRowTop(scrollTarget);
+				scroll.scrollTo(0, top - 1, logEntries.getWidth(), 1, false, true);
+				scrollTarget = -1;
+			} else if (following) {
+				scroll.setScrollPercentY(1);
+			} else {
+				scroll.setScrollY(logEntries.getRowOffset(anchor) + anchorOffset);
+				scroll.updateVisualScroll();
+			}
+			flushedScrollY = scroll.getScrollY();
+		}
+
+		/**
+		 * Remembers which row is at the top of the view, so it stays there when rows are added, hidden or shown. Views that show the
+		 * newest entries keep following them instead. Must be called before the rows change.
+		 */
+		void keepPosition () {
+			if (anchored) {
+				return;
+			}
+			anchored = true;
+			float scrollY = scroll.getScrollY();
+			// only the user scrolls between two flushes
+			if (scrollY != flushedScrollY) {
+				following = scrollY >= scroll.getMaxY() - 1;
+			}
+			if (followOutput) {
+				following = true;
+				followOutput = false;
+			}
+			if (!following) {
+				anchor = logEntries.getRowAt(scrollY);
+				anchorOffset = scrollY - logEntries.getRowOffset(anchor);
+			}
+		}
+
+		/**
+		 * Scrolls to an entry the next time the view is brought up to date, instead of to the newest entry.
+		 */
+		void scrollTo (long seq) {
+			scrollTarget = seq;
+			dirty = true;
+		}
+
+		/**
+		 * Shows how many background commands are still running as the input field's placeholder.
+		 */
+		void showPending (int pending) {
+			if (pending == shownPending) {
+				return;
+			}
+			shownPending = pending;
+			input.setMessageText(pending == 0 ? null : pending + (pending == 1 ? " command" : " commands") + " running...");
+		}
+
+		private Label newLabel () {
+			Label l;
+			try {
+				l = (Label) ClassReflection.getConstructor(labelClass, CharSequence.class, Skin.class, String.class, Color.class)
+						.newInstance("", skin, fontName, LogLevel.DEFAULT.getColor());
+			} catch (Exception e) {
+				try {
+					l = (Label) ClassReflection.getConstructor(labelClass, CharSequence.class, String.class, Color.class)
+							.newInstance("", fontName, LogLevel.DEFAULT.getColor());
+				} catch (Exception e2) {
+					throw new RuntimeException(
+						"Label class does not support either (<String>, <Skin>, <String>, <Color>) or (<String>, <String>, <Color>) constructors.");
+				}
+			}
+			l.setWrap(true);
+			l.addListener(new LogListener(l, skin.getDrawable(tableBackground)));
+			return l;
 		}
 
 		private void setHidden (boolean h) {
@@ -570,9 +679,13 @@ public class GUIConsole extends AbstractConsole {
 
 		boolean submit () {
 			String s = input.getText();
-			if (s.length() == 0 || s.split(" ").length == 0) {
+			// malformed lines are still submitted so their error is logged
+			if (s.length() == 0 || (submitTokens.tokenize(s) && submitTokens.getCommandCount() == 0)) {
 				return false;
 			}
+			// show the output of the command even if the log was scrolled up
+			followOutput = true;
+			dirty = true;
 			if (exec != null) {
 				commandHistory.store(s);
 				execCommand(s);
@@ -637,7 +750,7 @@ public class GUIConsole extends AbstractConsole {
 					return false;
 				}
 				if (commandCompleter.isNew()) {
-					commandCompleter.set(exec, s);
+					commandCompleter.set(commands, GUIConsole.this, s);
 				}
 				input.setText(commandCompleter.next());
 				input.setCursorPosition(input.getText().length());
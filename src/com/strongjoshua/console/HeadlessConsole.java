@@ -13,16 +13,88 @@
 
 package com.strongjoshua.console;
 
+import com.badlogic.gdx.files.FileHandle;
+
 /**
- * Headless Console used for servers.
+ * Headless Console used for servers. On the JVM, entries logged from other threads are added to the log by a daemon consumer
+ * thread, which is started the first time that happens, and output to the system is buffered and printed by a
+ * {@link BufferedSystemOutput}, so logging does not wait on the terminal; see {@link JvmHeadlessWorker}. Commands can be sent to it
+ * over the network with a {@link RemoteConsoleServer}.
  *
  * @author Eric
  */
 public class HeadlessConsole extends AbstractConsole {
+	private final HeadlessWorker worker;
+
 	/**
 	 * Creates an Headless console
 	 */
 	public HeadlessConsole () {
 		logToSystem = true;
+		worker = HeadlessWorker.create(this);
+	}
+
+	@Override protected void logQueued () {
+		worker.entryQueued();
+	}
+
+	@Override protected int drainLogQueue (int limit) {
+		// the owning thread drains the queue before adding its own entries, so the consumer thread is not the only one
+		synchronized (log) {
+			return super.drainLogQueue(limit);
+		}
+	}
+
+	@Override protected void addEntry (CharSequence msg, LogLevel level) {
+		// the owning thread and the consumer thread can both add entries
+		synchronized (log) {
+			super.addEntry(msg, level);
+		}
+	}
+
+	@Override protected void printToSystem (CharSequence msg, LogLevel level) {
+		// only called from addEntry, under the log's lock
+		if (!worker.print(msg, level)) {
+			super.printToSystem(msg, level);
+		}
+	}
+
+	@Override public void setLogIndexEnabled (boolean enabled) {
+		synchronized (log) {
+			super.setLogIndexEnabled(enabled);
+		}
+	}
+
+	@Override public void setLogCompressionEnabled (boolean enabled) {
+		synchronized (log) {
+			super.setLogCompressionEnabled(enabled);
+		}
+	}
+
+	@Override public int find (String query) {
+		synchronized (log) {
+			return super.find(query);
+		}
+	}
+
+	@Override public void printLogToFile (FileHandle fh, boolean expandRepeats) {
+		synchronized (log) {
+			super.printLogToFile(fh, expandRepeats);
+		}
+	}
+
+	@Override public void setCollapseRepeats (boolean collapse) {
+		synchronized (log) {
+			super.setCollapseRepeats(collapse);
+		}
+	}
+
+	@Override public void dispose () {
+		worker.stop();
+		drainLogQueue(UNLIMITED_ENTRIES);
+		super.dispose();
+		synchronized (log) {
+			worker.dispose();
+		}
 	}
 }
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+/**
+ * The threads of a {@link HeadlessConsole}. This base class is used where there is only one thread (GWT): no entries are ever
+ * queued from other threads and output is printed right away. On the JVM {@link #create(HeadlessConsole)} returns a
+ * {@link JvmHeadlessWorker}.
+ */
+public class HeadlessWorker {
+	private static final String JVM_WORKER = "com.strongjoshua.console.JvmHeadlessWorker";
+
+	protected HeadlessConsole console;
+
+	/**
+	 * @return The best worker available on this platform for the console.
+	 */
+	static HeadlessWorker create (HeadlessConsole console) {
+		HeadlessWorker worker;
+		try {
+			Class<?> type = ClassReflection.forName(JVM_WORKER);
+			worker = (HeadlessWorker)ClassReflection.newInstance(type);
+		} catch (Throwable t) {
+			worker = new HeadlessWorker();
+		}
+		worker.console = console;
+		return worker;
+	}
+
+	/**
+	 * Called after an entry was queued from a thread other than the owning one. Must not block.
+	 */
+	void entryQueued () {
+	}
+
+	/**
+	 * Prints an entry to the system. Called under the lock of the console's log.
+	 *
+	 * @return False if the console should print it itself.
+	 */
+	boolean print (CharSequence msg, LogLevel level) {
+		return false;
+	}
+
+	/**
+	 * Stops adding queued entries. The console adds the remaining ones itself.
+	 */
+	void stop () {
+	}
+
+	/**
+	 * Prints everything not printed yet and releases the worker's resources. Called under the lock of the console's log.
+	 */
+	void dispose () {
+	}
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link HeadlessWorker} that adds entries logged from other threads to the log on a daemon consumer thread, started the first time
+ * that happens, and prints output to the system with a {@link BufferedSystemOutput}, so logging does not wait on the terminal.
+ * Excluded from the GWT module.
+ */
+public class JvmHeadlessWorker extends HeadlessWorker {
+	private static final long CONSUMER_PARK_NANOS = 100000000L;
+
+	private volatile Thread consumer;
+	private volatile boolean running = true;
+	private BufferedSystemOutput systemOutput;
+
+	@Override void entryQueued () {
+		Thread consumer = this.consumer;
+		if (consumer == null) {
+			startConsumer();
+		} else {
+			LockSupport.unpark(consumer);
+		}
+	}
+
+	private synchronized void startConsumer () {
+		if (consumer != null || !running) {
+			return;
+		}
+		Thread thread = new Thread(new Runnable() {
+			@Override public void run () {
+				while (running) {
+					if (console.drainLogQueue(console.logDrainLimit) == 0) {
+						LockSupport.parkNanos(this, CONSUMER_PARK_NANOS);
+					}
+				}
+			}
+		}, "HeadlessConsole log consumer");
+		thread.setDaemon(true);
+		consumer = thread;
+		thread.start();
+	}
+
+	@Override boolean print (CharSequence msg, LogLevel level) {
+		if (systemOutput == null) {
+			systemOutput = new BufferedSystemOutput();
+		}
+		systemOutput.write(msg, level);
+		return true;
+	}
+
+	@Override void stop () {
+		running = false;
+		Thread consumer;
+		synchronized (this) {
+			consumer = this.consumer;
+		}
+		if (consumer != null) {
+			LockSupport.unpark(consumer);
+			try {
+				consumer.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Override void dispose () {
+		if (systemOutput != null) {
+			systemOutput.dispose();
+			systemOutput = null;
+		}
+	}
+}
@@ -0,0 +1,24 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.strongjoshua.console;
+
+/**
+ * {@link OwnerThread} that compares against the thread it was created on. Excluded from the GWT module.
+ */
+public class JvmOwnerThread extends OwnerThread {
+	private final Thread owner = Thread.currentThread();
+
+	@Override public boolean isCurrent () {
+		return Thread.currentThread() == owner;
+	}
+}
@@ -14,35 +14,392 @@
 package com.strongjoshua.console;
 
 import com.badlogic.gdx.files.FileHandle;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.StreamUtils;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Iterator;
 
-public class Log {
-	private Array<LogEntry> logEntries;
-	private int numEntries = Console.UNLIMITED_ENTRIES;
+/**
+ * The entries of a console, oldest first. Without a maximum number of entries, all but the newest entries can be sealed into
+ * compressed blocks, see {@link #setCompressionEnabled(boolean)}.
+ */
+public class Log implements Iterable<LogEntry> {
+	private static final int CHUNK_SIZE = 8192;
+	private static final int MAX_POOLED_ENTRIES = 1024;
+	/** Entries that always stay uncompressed, so the newest rows render without unpacking anything. */
+	private static final int HOT_ENTRIES = 4096;
+	private static final int BLOCK_ENTRIES = 2048;
+
+	private RingBuffer<LogEntry> logEntries;
+	private long addedCount;
+	private volatile int minSeverity;
+	private LogIndex index;
+	private LogColdStorage cold;
+	private boolean collapseRepeats;
+	private final LongArray queryTerms = new LongArray(), entryTerms = new LongArray();
+	private final Pool<LogEntry> entryPool = new Pool<LogEntry>(16, MAX_POOLED_ENTRIES) {
+		@Override protected LogEntry newObject () {
+			return new LogEntry();
+		}
+	};
 
 	protected Log () {
-		logEntries = new Array<LogEntry>();
+		logEntries = new RingBuffer<LogEntry>(Console.UNLIMITED_ENTRIES);
 	}
 
+	/**
+	 * @param numEntries Maximum number of entries to keep, or {@link Console#UNLIMITED_ENTRIES}. If fewer than the current number,
+	 *                   the oldest entries are dropped.
+	 */
 	public void setMaxEntries (int numEntries) {
-		this.numEntries = numEntries;
+		if (numEntries != Console.UNLIMITED_ENTRIES) {
+			if (cold != null && cold.size() > 0) {
+				thaw(Math.max(0, size() - numEntries));
+			}
+			while (logEntries.size > numEntries) {
+				LogEntry removed = logEntries.removeFirst();
+				if (index != null) {
+					index.remove(addedCount - logEntries.size - 1, removed);
+				}
+				entryPool.free(removed);
+			}
+		}
+		logEntries.setMaxSize(numEntries);
 	}
 
-	protected void addEntry (String msg, LogLevel level) {
-		logEntries.add(new LogEntry(msg, level));
-		if (logEntries.size > numEntries && numEntries != Console.UNLIMITED_ENTRIES) {
-			logEntries.removeIndex(0);
+	/**
+	 * Enables or disables compressing old entries. If enabled, the log has no maximum number of entries and holds more than a few
+	 * thousand, the oldest ones are sealed into blocks of a few thousand entries and compressed, where the platform supports it.
+	 * Blocks are packed on the thread that adds entries and unpacked on the thread that reads them, so the memory saved costs time
+	 * whenever old entries are scrolled to or searched. The most recently read blocks are kept unpacked.
+	 * Disabled by default.
+	 *
+	 * @param enabled False to decompress and keep all entries as they are.
+	 */
+	public void setCompressionEnabled (boolean enabled) {
+		if (enabled && cold == null) {
+			cold = new LogColdStorage(LogBlockCodec.create(), BLOCK_ENTRIES);
+			sealColdEntries();
+		} else if (!enabled && cold != null) {
+			thaw(0);
+			cold.dispose();
+			cold = null;
 		}
 	}
 
-	protected Array<LogEntry> getLogEntries () {
+	/**
+	 * @return The number of bytes the compressed entries take up.
+	 */
+	public long getCompressedBytes () {
+		return cold == null ? 0 : cold.getPackedBytes();
+	}
+
+	/**
+	 * @return The number of entries that are compressed.
+	 */
+	public int getCompressedCount () {
+		return cold == null ? 0 : cold.size();
+	}
+
+	private void sealColdEntries () {
+		if (logEntries.getMaxSize() != Console.UNLIMITED_ENTRIES) {
+			return;
+		}
+		while (logEntries.size >= HOT_ENTRIES + BLOCK_ENTRIES) {
+			cold.seal(logEntries, entryPool);
+		}
+	}
+
+	/**
+	 * Moves the compressed entries back into the buffer, except the oldest ones, which are dropped.
+	 */
+	private void thaw (int drop) {
+		long oldest = addedCount - size();
+		RingBuffer<LogEntry> entries = new RingBuffer<LogEntry>(Console.UNLIMITED_ENTRIES);
+		for (int i = 0, n = cold.size(); i < n; i++) {
+			LogEntry entry = cold.get(i);
+			if (i < drop) {
+				if (index != null) {
+					index.remove(oldest + i, entry);
+				}
+				continue;
+			}
+			LogEntry copy = entryPool.obtain();
+			copy.set(entry);
+			entries.add(copy);
+		}
+		for (int i = 0; i < logEntries.size; i++) {
+			entries.add(logEntries.get(i));
+		}
+		logEntries = entries;
+		cold.clear();
+	}
+
+	/**
+	 * Entries of a less severe level are not stored at all. Entries already stored are kept.
+	 *
+	 * @param level The least severe level to store, see {@link LogLevel#getSeverity()}.
+	 */
+	public void setMinLevel (LogLevel level) {
+		minSeverity = level.getSeverity();
+	}
+
+	/**
+	 * @return True if entries of the level are stored. Can be called from any thread.
+	 */
+	public boolean accepts (LogLevel level) {
+		return level.getSeverity() >= minSeverity;
+	}
+
+	/**
+	 * Enables or disables collapsing repeats. If enabled, logging the same text with the same level as the newest entry only counts
+	 * up that entry's {@link LogEntry#getRepeatCount()} instead of adding another entry. Disabled by default.
+	 */
+	public void setCollapseRepeats (boolean collapse) {
+		collapseRepeats = collapse;
+	}
+
+	public boolean isCollapsingRepeats () {
+		return collapseRepeats;
+	}
+
+	/**
+	 * @return The new entry, the newest entry if it was repeated, or null if the level is not accepted.
+	 */
+	protected LogEntry addEntry (CharSequence msg, LogLevel level) {
+		if (!accepts(level)) {
+			return null;
+		}
+		if (collapseRepeats && logEntries.size > 0) {
+			LogEntry last = logEntries.last();
+			if (last.isRepeatedBy(msg, level)) {
+				last.repeat();
+				return last;
+			}
+		}
+		LogEntry entry = entryPool.obtain();
+		entry.set(msg, level);
+		LogEntry evicted = logEntries.add(entry);
+		if (evicted != null) {
+			if (index != null) {
+				index.remove(addedCount - logEntries.size, evicted);
+			}
+			entryPool.free(evicted);
+		}
+		addedCount++;
+		if (index != null) {
+			index.add(addedCount - 1, entry);
+		}
+		if (cold != null) {
+			sealColdEntries();
+		}
+		return entry;
+	}
+
+	/**
+	 * @param index 0 for the oldest stored entry.
+	 * @return The level of the entry, read without unpacking it if it is compressed.
+	 */
+	public LogLevel getLevel (int index) {
+		if (cold != null) {
+			int coldSize = cold.size();
+			if (index < coldSize) {
+				return cold.getLevel(index);
+			}
+			index -= coldSize;
+		}
+		return logEntries.get(index).getLevel();
+	}
+
+	/**
+	 * @return The entries that are not compressed.
+	 */
+	protected RingBuffer<LogEntry> getLogEntries () {
 		return logEntries;
 	}
 
+	/**
+	 * @return The number of stored entries.
+	 */
+	public int size () {
+		return cold == null ? logEntries.size : cold.size() + logEntries.size;
+	}
+
+	/**
+	 * @return The number of entries added since this log was created. Unlike {@link #size()} this is not reduced by eviction or
+	 * {@link #clear()}, so <code>getAddedCount() - size()</code> is the sequence number of the oldest stored entry.
+	 */
+	public long getAddedCount () {
+		return addedCount;
+	}
+
+	/**
+	 * @param index 0 for the oldest stored entry.
+	 * @return The entry, which is reused for a new one once evicted, so it must not be kept.
+	 */
+	public LogEntry get (int index) {
+		if (cold != null) {
+			int coldSize = cold.size();
+			if (index < coldSize) {
+				return cold.get(index);
+			}
+			index -= coldSize;
+		}
+		return logEntries.get(index);
+	}
+
+	/**
+	 * Iterates over all entries, oldest first, unpacking compressed ones as needed. The entries must not be kept.
+	 */
+	@Override public Iterator<LogEntry> iterator () {
+		return new Iterator<LogEntry>() {
+			private int next;
+
+			@Override public boolean hasNext () {
+				return next < size();
+			}
+
+			@Override public LogEntry next () {
+				return get(next++);
+			}
+
+			@Override public void remove () {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear () {
+		while (logEntries.size > 0) {
+			entryPool.free(logEntries.removeFirst());
+		}
+		if (cold != null) {
+			cold.clear();
+		}
+		if (index != null) {
+			index.clear();
+		}
+	}
+
+	/**
+	 * Releases the native memory used to compress entries. The log can still be used; reading compressed entries or compressing
+	 * more of them acquires it again. Call it once done with a {@link #snapshot()}.
+	 */
+	public void dispose () {
+		if (cold != null) {
+			cold.dispose();
+		}
+	}
+
+	/**
+	 * Enables or disables the word index used by {@link #find(CharSequence, LongArray)}. Enabling it indexes the current
+	 * entries, which takes time proportional to their length; afterwards entries are indexed as they are added.
+	 *
+	 * @param maxPostings How many word occurrences the index holds at most, or 0 to disable it. See
+	 *                    {@link LogIndex#DEFAULT_MAX_POSTINGS}.
+	 */
+	public void setIndexCapacity (int maxPostings) {
+		if (maxPostings <= 0) {
+			index = null;
+			return;
+		}
+		index = new LogIndex(this, maxPostings);
+		// pretend the stored entries were just added, oldest first
+		int size = size();
+		long oldest = addedCount - size;
+		for (int i = 0; i < size; i++) {
+			index.add(oldest + i, get(i));
+		}
+	}
+
+	/**
+	 * @return The word index, or null if it is disabled.
+	 */
+	public LogIndex getIndex () {
+		return index;
+	}
+
+	/**
+	 * Finds the entries containing every word of the query, ignoring case and punctuation. Uses the index where enabled, and scans
+	 * the other entries.
+	 *
+	 * @param query Words to search for. A query without words matches nothing.
+	 * @param out   Receives the sequence numbers of the matching entries in ascending order, see {@link #getAddedCount()}.
+	 * @return The number of matching entries.
+	 */
+	public int find (CharSequence query, LongArray out) {
+		out.clear();
+		LogIndex.collectTerms(query, queryTerms);
+		if (queryTerms.size == 0) {
+			return 0;
+		}
+		long oldest = addedCount - size();
+		long scanEnd = index == null ? addedCount : Math.max(oldest, Math.min(addedCount, index.getFirstIndexed()));
+		for (long seq = oldest; seq < scanEnd; seq++) {
+			if (LogIndex.containsTerms(get((int)(seq - oldest)).getText(), queryTerms, entryTerms)) {
+				out.add(seq);
+			}
+		}
+		if (index != null) {
+			index.find(queryTerms, out);
+		}
+		return out.size;
+	}
+
+	/**
+	 * @return A copy of the current entries that is safe to hand to another thread, which stays the same however this log changes.
+	 * Compressed entries are shared with this log and only unpacked when the copy is read; call {@link #dispose()} on the copy once
+	 * done with it.
+	 */
+	public Log snapshot () {
+		Log copy = new Log();
+		if (cold != null) {
+			copy.cold = cold.copy();
+		}
+		for (int i = 0; i < logEntries.size; i++) {
+			LogEntry entry = new LogEntry();
+			entry.set(logEntries.get(i));
+			copy.logEntries.add(entry);
+		}
+		copy.addedCount = addedCount;
+		return copy;
+	}
+
 	public boolean printToFile (FileHandle fh) {
+		return printToFile(fh, this);
+	}
+
+	/**
+	 * @see #printToFile(FileHandle, Iterable, boolean)
+	 */
+	public boolean printToFile (FileHandle fh, boolean expandRepeats) {
+		return printToFile(fh, this, expandRepeats);
+	}
+
+	/**
+	 * Streams the given entries to a file, one line each, without building the whole file in memory. Repeated entries are written
+	 * once, with their repeat count.
+	 *
+	 * @return True if the file was written completely.
+	 */
+	public static boolean printToFile (FileHandle fh, Iterable<LogEntry> entries) {
+		return printToFile(fh, entries, false);
+	}
+
+	/**
+	 * Streams the given entries to a file, one line each, without building the whole file in memory.
+	 *
+	 * @param expandRepeats If repeated entries are written once per repeat, stamped with the time range of the repeats, instead of
+	 *                      once with their repeat count.
+	 * @return True if the file was written completely.
+	 */
+	public static boolean printToFile (FileHandle fh, Iterable<LogEntry> entries, boolean expandRepeats) {
 		if (fh.isDirectory()) {
 			throw new IllegalArgumentException("File cannot be a directory!");
 		}
@@ -54,18 +411,41 @@ public class Log {
 			return false;
 		}
 
-		String toWrite = "";
-		for (LogEntry l : logEntries) {
-			toWrite += l.toString() + "\n";
-		}
-
+		StringBuilder chunk = new StringBuilder(CHUNK_SIZE + 256);
+		char[] buffer = new char[CHUNK_SIZE + 256];
 		try {
-			out.write(toWrite);
+			for (LogEntry l : entries) {
+				int lines = expandRepeats ? l.getRepeatCount() : 1;
+				for (int i = 0; i < lines; i++) {
+					if (expandRepeats) {
+						l.appendSingleTo(chunk);
+					} else {
+						l.appendTo(chunk);
+					}
+					chunk.append('\n');
+					if (chunk.length() >= CHUNK_SIZE) {
+						buffer = writeChunk(out, chunk, buffer);
+					}
+				}
+			}
+			writeChunk(out, chunk, buffer);
 			out.close();
 			return true;
 		} catch (IOException e) {
 			e.printStackTrace();
+			StreamUtils.closeQuietly(out);
 			return false;
 		}
 	}
+
+	private static char[] writeChunk (Writer out, StringBuilder chunk, char[] buffer) throws IOException {
+		int length = chunk.length();
+		if (buffer.length < length) {
+			buffer = new char[length];
+		}
+		chunk.getChars(0, length, buffer, 0);
+		out.write(buffer, 0, length);
+		chunk.setLength(0);
+		return buffer;
+	}
 }
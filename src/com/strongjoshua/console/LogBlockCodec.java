@@ -0,0 +1,63 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+/**
+ * Packs the serialized entries of a {@link Log} block for cold storage. This base class stores them as they are, which is used where
+ * <code>java.util.zip</code> is unavailable (GWT); on the JVM {@link #create()} returns a {@link DeflaterLogBlockCodec}.
+ */
+public class LogBlockCodec implements Disposable {
+	private static final String DEFLATER_CODEC = "com.strongjoshua.console.DeflaterLogBlockCodec";
+
+	/**
+	 * @return The best codec available on this platform.
+	 */
+	public static LogBlockCodec create () {
+		try {
+			Class<?> type = ClassReflection.forName(DEFLATER_CODEC);
+			return (LogBlockCodec)ClassReflection.newInstance(type);
+		} catch (Throwable t) {
+			return new LogBlockCodec();
+		}
+	}
+
+	/**
+	 * @param data   The serialized block.
+	 * @param length Number of bytes of the data to pack.
+	 * @return The packed bytes, in a new array.
+	 */
+	public byte[] pack (byte[] data, int length) {
+		byte[] packed = new byte[length];
+		System.arraycopy(data, 0, packed, 0, length);
+		return packed;
+	}
+
+	/**
+	 * @param packed Bytes returned by {@link #pack(byte[], int)}.
+	 * @param out    Receives the serialized block.
+	 * @param length The length the block had before it was packed.
+	 */
+	public void unpack (byte[] packed, byte[] out, int length) {
+		System.arraycopy(packed, 0, out, 0, length);
+	}
+
+	/**
+	 * Releases what the codec holds outside the Java heap. The codec can still be used afterwards and acquires it again.
+	 */
+	@Override public void dispose () {
+	}
+}
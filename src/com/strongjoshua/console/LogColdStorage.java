@@ -0,0 +1,238 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The oldest entries of an unlimited {@link Log}, serialized into blocks of a fixed number of entries and packed by a
+ * {@link LogBlockCodec}. Blocks are unpacked when their entries are read, and the most recently read ones are kept unpacked.
+ */
+class LogColdStorage {
+	private static final int CACHED_BLOCKS = 4;
+	private static final LogLevel[] LEVELS = LogLevel.values();
+
+	private final LogBlockCodec codec;
+	private final int blockEntries;
+	private final Array<Block> blocks = new Array<Block>();
+	private long packedBytes;
+
+	// most recently used first
+	private final Array<UnpackedBlock> cache = new Array<UnpackedBlock>(CACHED_BLOCKS);
+	private byte[] bytes = new byte[8192];
+	private final StringBuilder text = new StringBuilder();
+
+	LogColdStorage (LogBlockCodec codec, int blockEntries) {
+		this.codec = codec;
+		this.blockEntries = blockEntries;
+	}
+
+	int size () {
+		return blocks.size * blockEntries;
+	}
+
+	/**
+	 * @return The number of bytes the packed blocks take up.
+	 */
+	long getPackedBytes () {
+		return packedBytes;
+	}
+
+	/**
+	 * @return Storage sharing the packed blocks, which never change, with its own codec and cache, so it can be read on another
+	 * thread.
+	 */
+	LogColdStorage copy () {
+		LogColdStorage copy = new LogColdStorage(LogBlockCodec.create(), blockEntries);
+		copy.blocks.addAll(blocks);
+		copy.packedBytes = packedBytes;
+		return copy;
+	}
+
+	/**
+	 * Moves the oldest entries of the buffer into a new block, freeing them to the pool.
+	 */
+	void seal (RingBuffer<LogEntry> entries, Pool<LogEntry> pool) {
+		int length = 0;
+		byte[] levels = new byte[blockEntries];
+		for (int i = 0; i < blockEntries; i++) {
+			LogEntry entry = entries.removeFirst();
+			length = write(entry, length);
+			levels[i] = (byte)entry.getLevel().ordinal();
+			pool.free(entry);
+		}
+		byte[] packed = codec.pack(bytes, length);
+		blocks.add(new Block(packed, length, levels));
+		packedBytes += packed.length;
+	}
+
+	/**
+	 * @param index 0 for the oldest entry.
+	 * @return The level of the entry, which is kept unpacked so that it can be read without unpacking the block.
+	 */
+	LogLevel getLevel (int index) {
+		return LEVELS[blocks.get(index / blockEntries).levels[index % blockEntries]];
+	}
+
+	/**
+	 * @param index 0 for the oldest entry.
+	 * @return The entry, which is reused once its block leaves the cache, so it must not be kept.
+	 */
+	LogEntry get (int index) {
+		int block = index / blockEntries;
+		UnpackedBlock unpacked = null;
+		for (int i = 0; i < cache.size; i++) {
+			if (cache.get(i).block == block) {
+				unpacked = cache.removeIndex(i);
+				break;
+			}
+		}
+		if (unpacked == null) {
+			unpacked = cache.size == CACHED_BLOCKS ? cache.pop() : new UnpackedBlock(blockEntries);
+			unpack(block, unpacked);
+		}
+		cache.insert(0, unpacked);
+		return unpacked.entries.get(index % blockEntries);
+	}
+
+	void clear () {
+		blocks.clear();
+		cache.clear();
+		packedBytes = 0;
+	}
+
+	/**
+	 * Releases the native memory of the codec. The storage can still be used afterwards.
+	 */
+	void dispose () {
+		codec.dispose();
+	}
+
+	private int write (LogEntry entry, int position) {
+		CharSequence chars = entry.getText();
+		int length = chars.length();
+		ensureCapacity(position + 25 + length * 3);
+		long timeStamp = entry.getTimeStamp();
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			bytes[position++] = (byte)(timeStamp >>> shift);
+		}
+		bytes[position++] = (byte)entry.getLevel().ordinal();
+		int repeats = entry.getRepeatCount();
+		bytes[position++] = (byte)(repeats >>> 24);
+		bytes[position++] = (byte)(repeats >>> 16);
+		bytes[position++] = (byte)(repeats >>> 8);
+		bytes[position++] = (byte)repeats;
+		if (repeats > 1) {
+			long lastTimeStamp = entry.getLastTimeStamp();
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				bytes[position++] = (byte)(lastTimeStamp >>> shift);
+			}
+		}
+		bytes[position++] = (byte)(length >>> 24);
+		bytes[position++] = (byte)(length >>> 16);
+		bytes[position++] = (byte)(length >>> 8);
+		bytes[position++] = (byte)length;
+		// each char on its own, so surrogates need no special handling
+		for (int i = 0; i < length; i++) {
+			char c = chars.charAt(i);
+			if (c < 0x80) {
+				bytes[position++] = (byte)c;
+			} else if (c < 0x800) {
+				bytes[position++] = (byte)(0xc0 | c >> 6);
+				bytes[position++] = (byte)(0x80 | c & 0x3f);
+			} else {
+				bytes[position++] = (byte)(0xe0 | c >> 12);
+				bytes[position++] = (byte)(0x80 | c >> 6 & 0x3f);
+				bytes[position++] = (byte)(0x80 | c & 0x3f);
+			}
+		}
+		return position;
+	}
+
+	private void unpack (int index, UnpackedBlock out) {
+		Block block = blocks.get(index);
+		ensureCapacity(block.length);
+		codec.unpack(block.packed, bytes, block.length);
+		int position = 0;
+		for (int e = 0; e < blockEntries; e++) {
+			long timeStamp = 0;
+			for (int i = 0; i < 8; i++) {
+				timeStamp = timeStamp << 8 | bytes[position++] & 0xff;
+			}
+			LogLevel level = LEVELS[bytes[position++]];
+			int repeats = (bytes[position++] & 0xff) << 24 | (bytes[position++] & 0xff) << 16 | (bytes[position++] & 0xff) << 8
+				| bytes[position++] & 0xff;
+			// only repeated entries have a last time stamp of their own
+			long lastTimeStamp = timeStamp;
+			if (repeats > 1) {
+				lastTimeStamp = 0;
+				for (int i = 0; i < 8; i++) {
+					lastTimeStamp = lastTimeStamp << 8 | bytes[position++] & 0xff;
+				}
+			}
+			int length = (bytes[position++] & 0xff) << 24 | (bytes[position++] & 0xff) << 16 | (bytes[position++] & 0xff) << 8
+				| bytes[position++] & 0xff;
+			text.setLength(0);
+			for (int i = 0; i < length; i++) {
+				int b = bytes[position++] & 0xff;
+				if (b < 0x80) {
+					text.append((char)b);
+				} else if (b < 0xe0) {
+					text.append((char)((b & 0x1f) << 6 | bytes[position++] & 0x3f));
+				} else {
+					int b2 = bytes[position++] & 0x3f;
+					text.append((char)((b & 0x0f) << 12 | b2 << 6 | bytes[position++] & 0x3f));
+				}
+			}
+			LogEntry entry = out.entries.get(e);
+			entry.set(text, level, timeStamp);
+			entry.setRepeatCount(repeats);
+			entry.setLastTimeStamp(lastTimeStamp);
+		}
+		out.block = index;
+	}
+
+	private void ensureCapacity (int capacity) {
+		if (bytes.length < capacity) {
+			byte[] grown = new byte[Math.max(capacity, bytes.length * 2)];
+			System.arraycopy(bytes, 0, grown, 0, bytes.length);
+			bytes = grown;
+		}
+	}
+
+	private static class Block {
+		final byte[] packed;
+		final int length;
+		final byte[] levels;
+
+		Block (byte[] packed, int length, byte[] levels) {
+			this.packed = packed;
+			this.length = length;
+			this.levels = levels;
+		}
+	}
+
+	private static class UnpackedBlock {
+		final Array<LogEntry> entries;
+		int block = -1;
+
+		UnpackedBlock (int size) {
+			entries = new Array<LogEntry>(size);
+			for (int i = 0; i < size; i++) {
+				entries.add(new LogEntry());
+			}
+		}
+	}
+}
@@ -14,17 +14,125 @@
 package com.strongjoshua.console;
 
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Pool.Poolable;
 import com.badlogic.gdx.utils.TimeUtils;
 
-public class LogEntry {
-	private String text;
+/**
+ * A single line of the {@link Log}. Entries are pooled by the log and reused once evicted or cleared, so they must not be kept
+ * after the log changes; copy what is needed instead.
+ */
+public class LogEntry implements Poolable {
+	// texts longer than this are not kept around in pooled entries
+	private static final int MAX_POOLED_CAPACITY = 1024;
+
+	private StringBuilder text = new StringBuilder();
 	private LogLevel level;
-	private long timeStamp;
+	private long timeStamp, lastTimeStamp;
+	private int repeats = 1;
+
+	protected LogEntry () {
+	}
 
 	protected LogEntry (String msg, LogLevel level) {
-		this.text = msg;
+		set(msg, level);
+	}
+
+	/**
+	 * Replaces the text and level and stamps the entry with the current time.
+	 */
+	protected void set (CharSequence msg, LogLevel level) {
+		set(msg, level, TimeUtils.millis());
+	}
+
+	protected void set (CharSequence msg, LogLevel level, long timeStamp) {
+		text.setLength(0);
+		text.append(msg);
 		this.level = level;
-		timeStamp = TimeUtils.millis();
+		this.timeStamp = lastTimeStamp = timeStamp;
+		repeats = 1;
+	}
+
+	/**
+	 * Makes this entry a copy of another one.
+	 */
+	protected void set (LogEntry entry) {
+		text.setLength(0);
+		text.append(entry.text);
+		level = entry.level;
+		timeStamp = entry.timeStamp;
+		lastTimeStamp = entry.lastTimeStamp;
+		repeats = entry.repeats;
+	}
+
+	/**
+	 * @return True if the entry has the given text and level, so logging it again would repeat this entry.
+	 */
+	protected boolean isRepeatedBy (CharSequence msg, LogLevel level) {
+		if (this.level != level || text.length() != msg.length()) {
+			return false;
+		}
+		for (int i = text.length() - 1; i >= 0; i--) {
+			if (text.charAt(i) != msg.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Counts the entry as logged once more at the current time.
+	 */
+	protected void repeat () {
+		repeats++;
+		lastTimeStamp = TimeUtils.millis();
+	}
+
+	protected void setRepeatCount (int repeats) {
+		this.repeats = repeats;
+	}
+
+	/**
+	 * @return How many times in a row the entry was logged, see {@link Log#setCollapseRepeats(boolean)}. The time stamp is the
+	 * one of the first time, {@link #getLastTimeStamp()} the one of the last time.
+	 */
+	public int getRepeatCount () {
+		return repeats;
+	}
+
+	@Override public void reset () {
+		if (text.capacity() > MAX_POOLED_CAPACITY) {
+			text = new StringBuilder();
+		} else {
+			text.setLength(0);
+		}
+		level = null;
+		repeats = 1;
+	}
+
+	/**
+	 * @return The entry's text. Only valid until the entry is evicted from the log.
+	 */
+	public CharSequence getText () {
+		return text;
+	}
+
+	public LogLevel getLevel () {
+		return level;
+	}
+
+	public long getTimeStamp () {
+		return timeStamp;
+	}
+
+	/**
+	 * @return The time the entry was last logged, which is the time stamp unless it was repeated.
+	 */
+	public long getLastTimeStamp () {
+		return lastTimeStamp;
+	}
+
+	protected void setLastTimeStamp (long lastTimeStamp) {
+		this.lastTimeStamp = lastTimeStamp;
 	}
 
 	public Color getColor () {
@@ -37,10 +145,52 @@ public class LogEntry {
 			r += level.getIdentifier();
 		}
 		r += text;
+		if (repeats > 1) {
+			r += " (x" + repeats + ")";
+		}
 		return r;
 	}
 
+	/**
+	 * Appends the same text as {@link #toConsoleString()} without creating an intermediate string.
+	 */
+	protected void appendConsoleString (StringBuilder sb) {
+		if (level.equals(LogLevel.COMMAND)) {
+			sb.append(level.getIdentifier());
+		}
+		sb.append(text);
+		appendRepeats(sb);
+	}
+
+	/**
+	 * Appends the same text as {@link #toString()} without creating an intermediate string.
+	 */
+	protected void appendTo (StringBuilder sb) {
+		sb.append(timeStamp).append(": ").append(level.getIdentifier()).append(text);
+		appendRepeats(sb);
+	}
+
+	/**
+	 * Appends the same text as {@link #appendTo(StringBuilder)}, but without the repeat count, for writing each repeat on its own
+	 * line. The times of single repeats are not kept, so a repeated entry is stamped with the range from its first to its last time.
+	 */
+	protected void appendSingleTo (StringBuilder sb) {
+		sb.append(timeStamp);
+		if (repeats > 1) {
+			sb.append('-').append(lastTimeStamp);
+		}
+		sb.append(": ").append(level.getIdentifier()).append(text);
+	}
+
+	private void appendRepeats (StringBuilder sb) {
+		if (repeats > 1) {
+			sb.append(" (x").append(repeats).append(')');
+		}
+	}
+
 	@Override public String toString () {
-		return timeStamp + ": " + level.getIdentifier() + text;
+		StringBuilder sb = new StringBuilder();
+		appendTo(sb);
+		return sb.toString();
 	}
 }
@@ -0,0 +1,255 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Inverted index from the words of a {@link Log}'s entries to the sequence numbers of the entries containing them, so
+ * {@link Log#find(CharSequence, LongArray)} does not have to scan every entry. Words are runs of letters and digits, compared
+ * ignoring case, and stored as 64 bit hashes.
+ * <p>
+ * The index is updated as entries are added and evicted. It holds at most a fixed number of postings, one per distinct word of an
+ * entry; once full, the oldest entries are dropped from the index but stay in the log, where searches scan them instead.
+ */
+public class LogIndex {
+	public static final int DEFAULT_MAX_POSTINGS = 1 << 18;
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final Log log;
+	private final int maxPostings;
+	private final LongMap<Postings> postings = new LongMap<Postings>();
+	private int postingCount;
+	// entries in [firstIndexed, endIndexed) are indexed
+	private long firstIndexed, endIndexed;
+	private final LongArray terms = new LongArray();
+
+	/**
+	 * @param log         The log whose entries are indexed.
+	 * @param maxPostings How many word occurrences to keep in the index at most.
+	 */
+	LogIndex (Log log, int maxPostings) {
+		if (maxPostings < 1) {
+			throw new IllegalArgumentException("The index must hold at least one posting.");
+		}
+		this.log = log;
+		this.maxPostings = maxPostings;
+		firstIndexed = endIndexed = log.getAddedCount();
+	}
+
+	/**
+	 * Adds the hash of each word of the text to the array, without duplicates.
+	 */
+	static void collectTerms (CharSequence text, LongArray out) {
+		out.clear();
+		for (int i = 0, n = text.length(); i < n; ) {
+			if (!Character.isLetterOrDigit(text.charAt(i))) {
+				i++;
+				continue;
+			}
+			long hash = FNV_OFFSET;
+			for (; i < n; i++) {
+				char c = text.charAt(i);
+				if (!Character.isLetterOrDigit(c)) {
+					break;
+				}
+				hash = (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+			}
+			if (!out.contains(hash)) {
+				out.add(hash);
+			}
+		}
+	}
+
+	/**
+	 * @return True if the text contains every word whose hash is in the array.
+	 */
+	static boolean containsTerms (CharSequence text, LongArray queryTerms, LongArray scratch) {
+		collectTerms(text, scratch);
+		for (int i = 0; i < queryTerms.size; i++) {
+			if (!scratch.contains(queryTerms.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Indexes the newest entry, dropping the oldest indexed entries if the index is full.
+	 */
+	void add (long seq, LogEntry entry) {
+		if (seq != endIndexed) {
+			// entries were added while the index could not follow, start over from here
+			clear(seq);
+		}
+		collectTerms(entry.getText(), terms);
+		for (int i = 0; i < terms.size; i++) {
+			long term = terms.get(i);
+			Postings list = postings.get(term);
+			if (list == null) {
+				list = new Postings();
+				postings.put(term, list);
+			}
+			list.add(seq);
+		}
+		postingCount += terms.size;
+		endIndexed = seq + 1;
+
+		long oldest = log.getAddedCount() - log.size();
+		while (postingCount > maxPostings && firstIndexed < endIndexed - 1) {
+			remove(firstIndexed, log.get((int)(firstIndexed - oldest)));
+		}
+	}
+
+	/**
+	 * Removes the oldest indexed entry, which is about to be evicted from the log. Does nothing for entries that are not indexed.
+	 */
+	void remove (long seq, LogEntry entry) {
+		if (seq != firstIndexed || seq >= endIndexed) {
+			return;
+		}
+		collectTerms(entry.getText(), terms);
+		for (int i = 0; i < terms.size; i++) {
+			long term = terms.get(i);
+			Postings list = postings.get(term);
+			// the oldest entry is always at the head of its lists
+			if (list != null && list.first() == seq) {
+				list.removeFirst();
+				postingCount--;
+				if (list.isEmpty()) {
+					postings.remove(term);
+				}
+			}
+		}
+		firstIndexed = seq + 1;
+	}
+
+	/**
+	 * Empties the index. Entries added from now on are indexed again.
+	 */
+	void clear () {
+		clear(log.getAddedCount());
+	}
+
+	private void clear (long next) {
+		postings.clear();
+		postingCount = 0;
+		firstIndexed = endIndexed = next;
+	}
+
+	/**
+	 * @return The sequence number of the oldest indexed entry. Older entries in the log must be scanned.
+	 */
+	public long getFirstIndexed () {
+		return firstIndexed;
+	}
+
+	/**
+	 * @return The number of word occurrences stored.
+	 */
+	public int getPostingCount () {
+		return postingCount;
+	}
+
+	/**
+	 * @return The number of distinct words stored.
+	 */
+	public int getTermCount () {
+		return postings.size;
+	}
+
+	/**
+	 * Adds the sequence numbers of the indexed entries containing all words to the array, in ascending order.
+	 *
+	 * @param queryTerms Hashes of the words, see {@link #collectTerms(CharSequence, LongArray)}. Must not be empty.
+	 */
+	void find (LongArray queryTerms, LongArray out) {
+		Postings shortest = null;
+		for (int i = 0; i < queryTerms.size; i++) {
+			Postings list = postings.get(queryTerms.get(i));
+			if (list == null) {
+				return;
+			}
+			if (shortest == null || list.size() < shortest.size()) {
+				shortest = list;
+			}
+		}
+		for (int i = shortest.start; i < shortest.end; i++) {
+			long seq = shortest.seqs[i];
+			boolean all = true;
+			for (int t = 0; t < queryTerms.size && all; t++) {
+				all = postings.get(queryTerms.get(t)).contains(seq);
+			}
+			if (all) {
+				out.add(seq);
+			}
+		}
+	}
+
+	/**
+	 * Ascending sequence numbers of the entries containing one word.
+	 */
+	static class Postings {
+		long[] seqs = new long[4];
+		int start, end;
+
+		void add (long seq) {
+			if (end == seqs.length) {
+				int size = end - start;
+				// reclaim the evicted head before growing
+				long[] target = size < seqs.length / 2 ? seqs : new long[seqs.length * 2];
+				System.arraycopy(seqs, start, target, 0, size);
+				seqs = target;
+				start = 0;
+				end = size;
+			}
+			seqs[end++] = seq;
+		}
+
+		long first () {
+			return seqs[start];
+		}
+
+		void removeFirst () {
+			start++;
+		}
+
+		boolean isEmpty () {
+			return start == end;
+		}
+
+		int size () {
+			return end - start;
+		}
+
+		boolean contains (long seq) {
+			int low = start, high = end - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				long value = seqs[mid];
+				if (value < seq) {
+					low = mid + 1;
+				} else if (value > seq) {
+					high = mid - 1;
+				} else {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
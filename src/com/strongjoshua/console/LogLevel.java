@@ -26,28 +26,39 @@ public enum LogLevel {
 	 * The default log level. Prints in white to the console and has no special indicator in the log file.<br>
 	 * <b>Intentional Use:</b> debugging.
 	 */
-	DEFAULT(new Color(1, 1, 1, 1), ""), /**
+	DEFAULT(new Color(1, 1, 1, 1), "", 0), /**
 	 * Use to print errors. Prints in red to the console and has the '<i>ERROR</i>' marking in
 	 * the log file.<br>
 	 * <b>Intentional Use:</b> printing internal console errors; debugging.
 	 */
-	ERROR(new Color(217f / 255f, 0, 0, 1), "Error: "), /**
+	ERROR(new Color(217f / 255f, 0, 0, 1), "Error: ", 3), /**
 	 * Prints in green. Use to print success notifications of events.<br>
 	 * <b>Intentional Use:</b> Print successful execution of console commands (if needed).
 	 */
-	SUCCESS(new Color(0, 217f / 255f, 0, 1), "Success! "), /**
+	SUCCESS(new Color(0, 217f / 255f, 0, 1), "Success! ", 1), /**
 	 * Prints in white with {@literal "> "} prepended to the command. Also has
 	 * that prepended text as the indicator in the log file.<br>
 	 * <b>Intentional Use:</b> To be used by the console, alone.
 	 */
-	COMMAND(new Color(1, 1, 1, 1), "> ");
+	COMMAND(new Color(1, 1, 1, 1), "> ", 2);
 
 	private Color color;
 	private String identifier;
+	private int severity;
 
-	LogLevel (Color c, String identity) {
+	LogLevel (Color c, String identity, int severity) {
 		this.color = c;
 		identifier = identity;
+		this.severity = severity;
+	}
+
+	/**
+	 * @return How important entries of this level are, from {@link #DEFAULT} (lowest) over {@link #SUCCESS} and {@link #COMMAND} to
+	 * {@link #ERROR} (highest).
+	 * @see Console#setMinLogLevel(LogLevel)
+	 */
+	public int getSeverity () {
+		return severity;
 	}
 
 	Color getColor () {
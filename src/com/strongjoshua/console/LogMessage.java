@@ -0,0 +1,24 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+/**
+ * A log message that is only written if the entry is actually logged, see {@link Console#log(LogLevel, LogMessage)}.
+ */
+public interface LogMessage {
+	/**
+	 * Appends the message to the buffer. Called at most once per log call.
+	 */
+	void write (StringBuilder out);
+}
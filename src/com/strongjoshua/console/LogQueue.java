@@ -0,0 +1,107 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.strongjoshua.console;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bounded multi-producer, single-consumer queue for log entries that are logged from threads other than the one that adds them to
+ * the {@link Log}. {@link #offer(String, LogLevel)} is wait-free: it never retries or blocks, and drops the entry if the queue is
+ * full. Only one thread at a time may call {@link #poll()}.
+ */
+public class LogQueue {
+	private final int capacity;
+	private final AtomicInteger size = new AtomicInteger();
+	private final AtomicInteger dropped = new AtomicInteger();
+	private final AtomicReference<Node> tail;
+	private Node head;
+
+	/**
+	 * @param capacity Maximum number of queued entries.
+	 */
+	public LogQueue (int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be greater than 0.");
+		}
+		this.capacity = capacity;
+		head = new Node(null, null);
+		tail = new AtomicReference<Node>(head);
+	}
+
+	/**
+	 * Queues an entry. Safe to call from any thread.
+	 *
+	 * @return False if the queue was full and the entry was dropped.
+	 */
+	public boolean offer (String msg, LogLevel level) {
+		if (size.getAndIncrement() >= capacity) {
+			size.decrementAndGet();
+			dropped.incrementAndGet();
+			return false;
+		}
+		Node node = new Node(msg, level);
+		Node previous = tail.getAndSet(node);
+		previous.next = node;
+		return true;
+	}
+
+	/**
+	 * Removes the oldest entry. Must only be called by the consuming thread.
+	 *
+	 * @return The entry, or null if the queue is empty or the next entry is still being linked by its producer.
+	 */
+	public Node poll () {
+		Node next = head.next;
+		if (next == null) {
+			return null;
+		}
+		head.msg = null;
+		head = next;
+		size.decrementAndGet();
+		return next;
+	}
+
+	public boolean isEmpty () {
+		return size.get() == 0;
+	}
+
+	/**
+	 * @return The number of entries dropped because the queue was full since the last call.
+	 */
+	public int takeDropped () {
+		return dropped.getAndSet(0);
+	}
+
+	/**
+	 * A queued entry. Valid until the next call to {@link LogQueue#poll()}.
+	 */
+	public static class Node {
+		private String msg;
+		private final LogLevel level;
+		private volatile Node next;
+
+		Node (String msg, LogLevel level) {
+			this.msg = msg;
+			this.level = level;
+		}
+
+		public String getMessage () {
+			return msg;
+		}
+
+		public LogLevel getLevel () {
+			return level;
+		}
+	}
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Receives every entry stored in a console's {@link Log}, e.g. to persist it. Added with {@link Console#addLogSink(LogSink)} and
+ * disposed together with the console.
+ */
+public interface LogSink extends Disposable {
+	/**
+	 * Called on the thread that adds entries to the log, right after the entry was stored.
+	 *
+	 * @param entry The entry. Pooled by the log, so it must not be kept after this call.
+	 */
+	void write (LogEntry entry);
+
+	/**
+	 * Makes sure everything written so far is persisted.
+	 */
+	void flush ();
+}
@@ -0,0 +1,336 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * A {@link LogSink} that appends entries to memory-mapped segment files in a directory, for servers that run long enough that the
+ * in-memory log is not enough. A new segment is started when the current one is full and only the newest segments are kept.
+ * <p>
+ * Written entries are in the operating system's page cache right away, so they survive a crash of the application; call
+ * {@link #flush()} to also write them to disk. Use {@link #read(FileHandle, LogSink)} to load the spooled entries again.
+ * <p>
+ * Each entry is stored as its total size (int), time stamp (long), level (byte) and UTF-8 text. The size is written last, so a
+ * partly written entry is never read. A size of 0 marks the end of a segment.
+ */
+public class LogSpool implements LogSink {
+	public static final int DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+	private static final int MIN_SEGMENT_SIZE = 1024;
+	private static final String PREFIX = "spool-";
+	private static final String SUFFIX = ".seg";
+	private static final int HEADER_SIZE = 4 + 8 + 1;
+	private static final LogLevel[] LEVELS = LogLevel.values();
+
+	private final File directory;
+	private final int segmentSize;
+	private final int retainedSegments;
+	private final Array<File> segments = new Array<File>();
+	// dropped segments that could not be deleted yet, e.g. on Windows while a closed segment is still mapped
+	private final Array<File> undeleted = new Array<File>();
+	private long nextSegment;
+
+	private RandomAccessFile file;
+	private MappedByteBuffer buffer;
+	private boolean failed;
+
+	/**
+	 * Creates a spool with {@link #DEFAULT_SEGMENT_SIZE}.
+	 *
+	 * @see #LogSpool(FileHandle, int, int)
+	 */
+	public LogSpool (FileHandle directory, int retainedSegments) {
+		this(directory, DEFAULT_SEGMENT_SIZE, retainedSegments);
+	}
+
+	/**
+	 * Starts a new segment in the directory, after any segments already there.
+	 *
+	 * @param directory        Where to put the segments. Created if needed.
+	 * @param segmentSize      Size of each segment file in bytes. Longer entries are cut off.
+	 * @param retainedSegments How many segments to keep, including the one being written. Older ones are deleted.
+	 * @throws GdxRuntimeException If the first segment cannot be created.
+	 */
+	public LogSpool (FileHandle directory, int segmentSize, int retainedSegments) {
+		if (segmentSize < MIN_SEGMENT_SIZE) {
+			throw new IllegalArgumentException("Segment size must be at least " + MIN_SEGMENT_SIZE + " bytes.");
+		}
+		if (retainedSegments < 1) {
+			throw new IllegalArgumentException("At least one segment must be retained.");
+		}
+		this.directory = directory.file();
+		this.segmentSize = segmentSize;
+		this.retainedSegments = retainedSegments;
+
+		this.directory.mkdirs();
+		for (File segment : listSegments(this.directory)) {
+			segments.add(segment);
+			nextSegment = Math.max(nextSegment, segmentIndex(segment) + 1);
+		}
+		try {
+			startSegment();
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Unable to create log spool segment in " + this.directory, e);
+		}
+	}
+
+	/**
+	 * Does nothing once the spool failed or was disposed.
+	 */
+	@Override public synchronized void write (LogEntry entry) {
+		if (failed || buffer == null) {
+			return;
+		}
+		CharSequence text = entry.getText();
+		int length = Math.min(utf8Length(text), segmentSize - HEADER_SIZE);
+		if (buffer.remaining() < HEADER_SIZE + length) {
+			try {
+				startSegment();
+			} catch (IOException e) {
+				// keep the game running, but stop spooling
+				e.printStackTrace();
+				failed = true;
+				return;
+			}
+		}
+
+		int start = buffer.position();
+		buffer.position(start + 4);
+		buffer.putLong(entry.getTimeStamp());
+		buffer.put((byte)entry.getLevel().ordinal());
+		int written = encode(text, length);
+		buffer.putInt(start, HEADER_SIZE + written);
+	}
+
+	@Override public synchronized void flush () {
+		if (buffer != null) {
+			buffer.force();
+		}
+	}
+
+	@Override public synchronized void dispose () {
+		closeSegment();
+		deleteDroppedSegments(true);
+	}
+
+	private void startSegment () throws IOException {
+		closeSegment();
+		File segment = new File(directory, String.format("%s%012d%s", PREFIX, nextSegment++, SUFFIX));
+		file = new RandomAccessFile(segment, "rw");
+		// a new file is filled with zeros, which marks the end of the entries
+		buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+		segments.add(segment);
+		while (segments.size > retainedSegments) {
+			undeleted.add(segments.removeIndex(0));
+		}
+		deleteDroppedSegments(false);
+	}
+
+	/**
+	 * Deletes the dropped segments, keeping those that cannot be deleted yet to try again with the next segment.
+	 *
+	 * @param warn If a segment that still cannot be deleted is reported.
+	 */
+	private void deleteDroppedSegments (boolean warn) {
+		for (int i = undeleted.size - 1; i >= 0; i--) {
+			File segment = undeleted.get(i);
+			if (segment.delete() || !segment.exists()) {
+				undeleted.removeIndex(i);
+			} else if (warn) {
+				System.err.println("Unable to delete log spool segment " + segment);
+			}
+		}
+	}
+
+	private void closeSegment () {
+		if (file == null) {
+			return;
+		}
+		buffer.force();
+		StreamUtils.closeQuietly(file);
+		file = null;
+		buffer = null;
+	}
+
+	private static int utf8Length (CharSequence text) {
+		int length = 0;
+		for (int i = 0, n = text.length(); i < n; i++) {
+			char c = text.charAt(i);
+			if (c < 0x80) {
+				length++;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1))) {
+				length += 4;
+				i++;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Writes the text as UTF-8, stopping before a character that would exceed the given number of bytes.
+	 *
+	 * @return The number of bytes written.
+	 */
+	private int encode (CharSequence text, int maxBytes) {
+		MappedByteBuffer buffer = this.buffer;
+		int start = buffer.position();
+		int end = start + maxBytes;
+		for (int i = 0, n = text.length(); i < n; i++) {
+			char c = text.charAt(i);
+			int remaining = end - buffer.position();
+			if (c < 0x80) {
+				if (remaining < 1) {
+					break;
+				}
+				buffer.put((byte)c);
+			} else if (c < 0x800) {
+				if (remaining < 2) {
+					break;
+				}
+				buffer.put((byte)(0xc0 | c >> 6));
+				buffer.put((byte)(0x80 | c & 0x3f));
+			} else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1))) {
+				if (remaining < 4) {
+					break;
+				}
+				int codePoint = Character.toCodePoint(c, text.charAt(++i));
+				buffer.put((byte)(0xf0 | codePoint >> 18));
+				buffer.put((byte)(0x80 | codePoint >> 12 & 0x3f));
+				buffer.put((byte)(0x80 | codePoint >> 6 & 0x3f));
+				buffer.put((byte)(0x80 | codePoint & 0x3f));
+			} else {
+				if (remaining < 3) {
+					break;
+				}
+				buffer.put((byte)(0xe0 | c >> 12));
+				buffer.put((byte)(0x80 | c >> 6 & 0x3f));
+				buffer.put((byte)(0x80 | c & 0x3f));
+			}
+		}
+		return buffer.position() - start;
+	}
+
+	/**
+	 * Passes every entry spooled to the directory to the sink, oldest first. The entry passed to the sink is reused for the next
+	 * one.
+	 *
+	 * @param directory The directory of a {@link LogSpool}.
+	 * @param target    Receives the entries. Not disposed or flushed.
+	 * @return The number of entries read.
+	 * @throws GdxRuntimeException If a segment cannot be read.
+	 */
+	public static long read (FileHandle directory, LogSink target) {
+		LogEntry entry = new LogEntry();
+		StringBuilder text = new StringBuilder();
+		long count = 0;
+		for (File segment : listSegments(directory.file())) {
+			RandomAccessFile file = null;
+			try {
+				file = new RandomAccessFile(segment, "r");
+				MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+				while (buffer.remaining() >= HEADER_SIZE) {
+					int start = buffer.position();
+					int size = buffer.getInt();
+					if (size < HEADER_SIZE || size > buffer.limit() - start) {
+						break;
+					}
+					long timeStamp = buffer.getLong();
+					int level = buffer.get();
+					if (level < 0 || level >= LEVELS.length) {
+						break;
+					}
+					if (!decode(buffer, start + size, text)) {
+						// a partly written or damaged entry, nothing after it can be trusted
+						break;
+					}
+					entry.set(text, LEVELS[level], timeStamp);
+					target.write(entry);
+					count++;
+				}
+			} catch (IOException e) {
+				throw new GdxRuntimeException("Unable to read log spool segment " + segment, e);
+			} finally {
+				StreamUtils.closeQuietly(file);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Reads UTF-8 text up to the end of the entry.
+	 *
+	 * @return False if the entry ends within a character.
+	 */
+	private static boolean decode (MappedByteBuffer buffer, int end, StringBuilder out) {
+		out.setLength(0);
+		while (buffer.position() < end) {
+			int b = buffer.get() & 0xff;
+			int following = b < 0x80 ? 0 : b < 0xe0 ? 1 : b < 0xf0 ? 2 : 3;
+			if (end - buffer.position() < following) {
+				return false;
+			}
+			if (b < 0x80) {
+				out.append((char)b);
+			} else if (b < 0xe0) {
+				out.append((char)((b & 0x1f) << 6 | buffer.get() & 0x3f));
+			} else if (b < 0xf0) {
+				out.append((char)((b & 0x0f) << 12 | (buffer.get() & 0x3f) << 6 | buffer.get() & 0x3f));
+			} else {
+				int codePoint = (b & 0x07) << 18 | (buffer.get() & 0x3f) << 12 | (buffer.get() & 0x3f) << 6 | buffer.get() & 0x3f;
+				if (codePoint > Character.MAX_CODE_POINT) {
+					return false;
+				}
+				out.appendCodePoint(codePoint);
+			}
+		}
+		return true;
+	}
+
+	private static File[] listSegments (File directory) {
+		File[] files = directory.listFiles(new FileFilter() {
+			@Override public boolean accept (File file) {
+				return file.isFile() && file.getName().startsWith(PREFIX) && file.getName().endsWith(SUFFIX);
+			}
+		});
+		if (files == null) {
+			return new File[0];
+		}
+		Arrays.sort(files);
+		return files;
+	}
+
+	private static long segmentIndex (File segment) {
+		String name = segment.getName();
+		try {
+			return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,722 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.WidgetGroup;
+import com.badlogic.gdx.scenes.scene2d.utils.Cullable;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Displays the entries of a {@link Log} as wrapped labels, but only creates labels for the rows inside the visible area (plus a few
+ * rows of overscan). Row heights are kept as running offsets, so layout and scrolling cost depends on the height of the view rather
+ * than the size of the log. Rows are measured when they are added; when the width changes or many entries are added at once, their
+ * heights are estimated instead and only measured once they are bound to a label. Meant to be the widget of a {@link com.badlogic.gdx.scenes.scene2d.ui.ScrollPane},
+ * which reports the visible area through {@link #setCullingArea(Rectangle)}.
+ * <p>
+ * The offsets are kept in one list per {@link LogLevel}, so hiding or showing a level only changes which lists are merged and never
+ * measures rows again.
+ * <p>
+ * Rows can be highlighted, e.g. to show search results, with {@link #setMatches(LongArray)}.
+ * <p>
+ * When the newest entry is repeated, see {@link Log#setCollapseRepeats(boolean)}, only its row is measured and bound again.
+ */
+public class LogView extends WidgetGroup implements Cullable {
+	private static final int OVERSCAN = 4;
+	/** When more entries than this are added at once, only the newest ones are measured right away. */
+	private static final int MEASURED_BATCH = 256;
+	private static final LogLevel[] LEVELS = LogLevel.values();
+	private static final Color MATCH_COLOR = new Color(1, 0.85f, 0.2f, 1);
+
+	private final Log log;
+	private final Pool<Label> rowPool;
+	private final Label measureLabel;
+	private final StringBuilder text = new StringBuilder();
+
+	private final RowIndex[] levelRows = new RowIndex[LEVELS.length];
+	private final boolean[] levelShown = new boolean[LEVELS.length];
+	private final LongArray matches = new LongArray();
+	private RowIndex[] shownRows;
+	private final VisibleRows visibleRows;
+	private long firstSeq, measuredEnd;
+	private int measuredRepeats;
+	private float measuredWidth, lineHeight;
+
+	private Array<Label> rows = new Array<Label>(), spareRows = new Array<Label>();
+	private LongArray rowSeqs = new LongArray(), spareSeqs = new LongArray();
+	private long boundFirst, boundEnd;
+
+	private final Rectangle cullingArea = new Rectangle();
+	private boolean hasCullingArea;
+
+	/**
+	 * @param log     The log to display.
+	 * @param rowPool Creates the labels used as rows. Labels are freed back to it when they scroll out of view.
+	 */
+	public LogView (Log log, Pool<Label> rowPool) {
+		this.log = log;
+		this.rowPool = rowPool;
+		measureLabel = rowPool.obtain();
+		measureLabel.setWrap(true);
+		for (int i = 0; i < LEVELS.length; i++) {
+			levelRows[i] = new RowIndex();
+			levelShown[i] = true;
+		}
+		shownRows = levelRows.clone();
+		visibleRows = new VisibleRows(LEVELS.length);
+		firstSeq = measuredEnd = log.getAddedCount() - log.size();
+	}
+
+	/**
+	 * Picks up entries added to or removed from the log since the last call. Only new entries are measured.
+	 */
+	public void update () {
+		float oldHeight = getTotalHeight();
+		long oldest = log.getAddedCount() - log.size();
+		if (oldest > firstSeq) {
+			firstSeq = oldest;
+			for (RowIndex index : levelRows) {
+				index.evictBefore(oldest);
+			}
+		}
+		if (measuredWidth > 0) {
+			updateRepeatedRow();
+			measureRows();
+		}
+		if (getTotalHeight() != oldHeight) {
+			invalidateHierarchy();
+		} else {
+			invalidate();
+		}
+	}
+
+	/**
+	 * Drops all rows and measures every entry of the log again.
+	 */
+	public void rebuild () {
+		firstSeq = log.getAddedCount() - log.size();
+		clearOffsets();
+		unbindRows();
+		if (measuredWidth > 0) {
+			measureRows();
+		}
+		invalidateHierarchy();
+	}
+
+	/**
+	 * Shows or hides the entries of a level. Entries stay in the log either way.
+	 */
+	public void setLevelShown (LogLevel level, boolean shown) {
+		if (levelShown[level.ordinal()] == shown) {
+			return;
+		}
+		levelShown[level.ordinal()] = shown;
+		int count = 0;
+		for (int i = 0; i < LEVELS.length; i++) {
+			if (levelShown[i]) {
+				count++;
+			}
+		}
+		shownRows = new RowIndex[count];
+		for (int i = 0, n = 0; i < LEVELS.length; i++) {
+			if (levelShown[i]) {
+				shownRows[n++] = levelRows[i];
+			}
+		}
+		// rows that stay visible keep their labels, see bindRows
+		boundFirst = boundEnd = -1;
+		invalidateHierarchy();
+	}
+
+	public boolean isLevelShown (LogLevel level) {
+		return levelShown[level.ordinal()];
+	}
+
+	/**
+	 * Highlights the rows of the given entries, replacing the previous highlights.
+	 *
+	 * @param seqs Sequence numbers of the entries in ascending order, see {@link Log#getAddedCount()}.
+	 */
+	public void setMatches (LongArray seqs) {
+		matches.clear();
+		matches.addAll(seqs);
+		// bound rows must be colored again
+		unbindRows();
+		invalidate();
+	}
+
+	/**
+	 * @return The distance of the top of an entry's row from the bottom of this view, for scrolling to it. Rows of hidden levels
+	 * return the top of the next shown row.
+	 */
+	public float getRowTop (long seq) {
+		return (float)(getTotalHeight() - getOffset(seq));
+	}
+
+	private void clearOffsets () {
+		for (RowIndex index : levelRows) {
+			index.clear();
+		}
+		measuredEnd = firstSeq;
+	}
+
+	private void unbindRows () {
+		for (Label row : rows) {
+			row.remove();
+			rowPool.free(row);
+		}
+		rows.clear();
+		rowSeqs.clear();
+		boundFirst = boundEnd = 0;
+	}
+
+	private void measureRows () {
+		long end = log.getAddedCount();
+		long oldest = end - log.size();
+		long measureFrom = end - MEASURED_BATCH;
+		for (long seq = Math.max(measuredEnd, oldest); seq < end; seq++) {
+			// older entries may be compressed, so only their level is read until they are shown
+			if (seq < measureFrom) {
+				levelRows[log.getLevel((int)(seq - oldest)).ordinal()].addEstimate(seq, lineHeight);
+			} else {
+				LogEntry entry = log.get((int)(seq - oldest));
+				levelRows[entry.getLevel().ordinal()].add(seq, measure(entry));
+			}
+		}
+		measuredEnd = end;
+		if (end > oldest) {
+			measuredRepeats = log.get((int)(end - 1 - oldest)).getRepeatCount();
+		}
+	}
+
+	/**
+	 * Measures and binds the newest measured row again if its entry was repeated since it was measured.
+	 */
+	private void updateRepeatedRow () {
+		long seq = measuredEnd - 1;
+		long oldest = log.getAddedCount() - log.size();
+		if (seq < Math.max(firstSeq, oldest)) {
+			return;
+		}
+		LogEntry entry = log.get((int)(seq - oldest));
+		if (entry.getRepeatCount() == measuredRepeats) {
+			return;
+		}
+		measuredRepeats = entry.getRepeatCount();
+		// it is the newest measured row, so it is also the last row of its level
+		levelRows[entry.getLevel().ordinal()].setLastHeight(measure(entry));
+		int row = rowSeqs.indexOf(seq);
+		if (row >= 0) {
+			bindRow(rows.get(row), seq);
+		}
+	}
+
+	/**
+	 * Measures the estimated rows between the sequence numbers exactly.
+	 *
+	 * @return True if any row was measured.
+	 */
+	private boolean measureEstimatedRows (long first, long last) {
+		long oldest = log.getAddedCount() - log.size();
+		boolean measured = false;
+		visibleRows.start(shownRows, first);
+		for (long seq = visibleRows.next(last); seq >= 0; seq = visibleRows.next(last)) {
+			RowIndex index = visibleRows.getIndex();
+			int position = visibleRows.getPosition();
+			if (index.isEstimated(position)) {
+				index.setHeight(position, measure(log.get((int)(seq - oldest))));
+				measured = true;
+			}
+		}
+		if (measured) {
+			for (RowIndex index : shownRows) {
+				index.applyHeights();
+			}
+		}
+		return measured;
+	}
+
+	private float measure (LogEntry entry) {
+		Label label = measureLabel;
+		label.setWidth(measuredWidth);
+		label.setText(bindText(entry));
+		label.invalidate();
+		return label.getPrefHeight();
+	}
+
+	private StringBuilder bindText (LogEntry entry) {
+		text.setLength(0);
+		// I'm not sure about the extra space, but it makes the label highlighting look much better with VisUI
+		text.append(' ');
+		entry.appendConsoleString(text);
+		return text;
+	}
+
+	private float getTotalHeight () {
+		double total = 0;
+		for (RowIndex index : shownRows) {
+			total += index.getTotal();
+		}
+		return (float)total;
+	}
+
+	/**
+	 * @return The height of the shown rows before the given sequence number.
+	 */
+	private double getOffset (long seq) {
+		return getOffset(shownRows, seq);
+	}
+
+	/**
+	 * @return The height of the rows of the indices before the given sequence number.
+	 */
+	static double getOffset (RowIndex[] indices, long seq) {
+		double offset = 0;
+		for (RowIndex index : indices) {
+			offset += index.getHeightBefore(seq);
+		}
+		return offset;
+	}
+
+	@Override public float getPrefWidth () {
+		return 0;
+	}
+
+	@Override public float getPrefHeight () {
+		return getTotalHeight();
+	}
+
+	/**
+	 * @param offset Distance from the top of this view.
+	 * @return The sequence number of the shown row at that distance, clamped to the measured rows.
+	 */
+	public long getRowAt (float offset) {
+		return findRow(offset);
+	}
+
+	/**
+	 * @return The distance of the top of an entry's row from the top of this view.
+	 */
+	public float getRowOffset (long seq) {
+		return (float)getOffset(seq);
+	}
+
+	@Override public void layout () {
+		float width = getWidth();
+		if (width != measuredWidth && width > 0) {
+			float oldHeight = getTotalHeight();
+			float oldWidth = measuredWidth;
+			measuredWidth = width;
+			measureLabel.setWidth(width);
+			measureLabel.setText(" ");
+			measureLabel.invalidate();
+			lineHeight = measureLabel.getPrefHeight();
+			if (oldWidth > 0) {
+				// only the rows that get bound are measured again
+				for (RowIndex index : levelRows) {
+					index.estimate(oldWidth / width, lineHeight);
+				}
+			} else {
+				clearOffsets();
+			}
+			measureRows();
+			if (getTotalHeight() != oldHeight) {
+				invalidateHierarchy();
+			}
+		}
+		bindRows(true);
+	}
+
+	@Override public void setCullingArea (Rectangle cullingArea) {
+		if (cullingArea == null) {
+			hasCullingArea = false;
+		} else {
+			hasCullingArea = true;
+			this.cullingArea.set(cullingArea);
+		}
+		bindRows(false);
+	}
+
+	/**
+	 * Makes sure exactly the shown rows in (and near) the visible area have a label.
+	 *
+	 * @param reposition If labels that stay bound must be positioned again, e.g. because row heights changed.
+	 */
+	private void bindRows (boolean reposition) {
+		float total = getTotalHeight();
+		float visibleBottom = hasCullingArea ? cullingArea.y : 0;
+		float visibleTop = hasCullingArea ? cullingArea.y + cullingArea.height : getHeight();
+
+		long first = 0, last = 0;
+		// measuring estimated rows moves the rows below them, so the range is looked up again once
+		for (int pass = 0; pass < 2; pass++) {
+			first = findRow(total - visibleTop);
+			last = findRow(total - visibleBottom) + 1;
+			first = Math.max(firstSeq, first - OVERSCAN);
+			last = Math.min(measuredEnd, last + OVERSCAN);
+			if (first >= last) {
+				first = last = measuredEnd;
+			}
+			if (!measureEstimatedRows(first, last)) {
+				break;
+			}
+			float measuredTotal = getTotalHeight();
+			if (measuredTotal != total) {
+				total = measuredTotal;
+				reposition = true;
+				invalidateHierarchy();
+			}
+		}
+
+		if (first == boundFirst && last == boundEnd) {
+			if (reposition) {
+				positionRows(total);
+			}
+			return;
+		}
+
+		// both the bound and the new rows are sorted by sequence number, so labels are reused in a single pass
+		Array<Label> old = rows, next = spareRows;
+		LongArray oldSeqs = rowSeqs, nextSeqs = spareSeqs;
+		next.clear();
+		nextSeqs.clear();
+		int oldIndex = 0;
+		visibleRows.start(shownRows, first);
+		for (long seq = visibleRows.next(last); seq >= 0; seq = visibleRows.next(last)) {
+			while (oldIndex < oldSeqs.size && oldSeqs.get(oldIndex) < seq) {
+				freeRow(old.get(oldIndex++));
+			}
+			Label row;
+			if (oldIndex < oldSeqs.size && oldSeqs.get(oldIndex) == seq) {
+				row = old.get(oldIndex++);
+			} else {
+				row = rowPool.obtain();
+				bindRow(row, seq);
+				addActor(row);
+			}
+			next.add(row);
+			nextSeqs.add(seq);
+		}
+		while (oldIndex < oldSeqs.size) {
+			freeRow(old.get(oldIndex++));
+		}
+		old.clear();
+		oldSeqs.clear();
+		rows = next;
+		rowSeqs = nextSeqs;
+		spareRows = old;
+		spareSeqs = oldSeqs;
+		boundFirst = first;
+		boundEnd = last;
+		positionRows(total);
+	}
+
+	private void freeRow (Label row) {
+		row.remove();
+		rowPool.free(row);
+	}
+
+	private void bindRow (Label row, long seq) {
+		LogEntry entry = log.get((int)(seq - (log.getAddedCount() - log.size())));
+		row.setText(bindText(entry));
+		row.setColor(isMatch(seq) ? MATCH_COLOR : entry.getColor());
+	}
+
+	private boolean isMatch (long seq) {
+		int low = 0, high = matches.size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long value = matches.get(mid);
+			if (value < seq) {
+				low = mid + 1;
+			} else if (value > seq) {
+				high = mid - 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void positionRows (float total) {
+		if (rows.size == 0) {
+			return;
+		}
+		double top = getOffset(rowSeqs.get(0));
+		float width = getWidth();
+		visibleRows.start(shownRows, rowSeqs.get(0));
+		for (int i = 0; i < rows.size; i++) {
+			visibleRows.next(boundEnd);
+			float height = visibleRows.getHeight();
+			rows.get(i).setBounds(0, (float)(total - top - height), width, height);
+			top += height;
+		}
+	}
+
+	/**
+	 * @param offset Distance from the top of the first shown row.
+	 * @return The sequence number of the shown row containing the offset, clamped to the measured rows.
+	 */
+	private long findRow (float offset) {
+		return findRow(shownRows, firstSeq, measuredEnd, offset);
+	}
+
+	/**
+	 * @param first Sequence number of the oldest row.
+	 * @param end   Sequence number after the newest row.
+	 * @return The sequence number of the row of the indices containing the offset, clamped to the rows.
+	 */
+	static long findRow (RowIndex[] indices, long first, long end, float offset) {
+		// the offset of a sequence number grows with it, so search for the last one that starts at or above the offset
+		long low = first, high = end - 1;
+		if (high < low) {
+			return first;
+		}
+		while (low < high) {
+			long mid = (low + high + 1) >>> 1;
+			if (getOffset(indices, mid) <= offset) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Running offsets of the measured rows of one level.
+	 */
+	static class RowIndex {
+		/** seqs[i] is the sequence number of row i, tops[i] its offset within this level and tops[size] the bottom. */
+		private long[] seqs = new long[16];
+		private double[] tops = new double[17];
+		private boolean[] estimated = new boolean[16];
+		private int start, size;
+		// measured heights waiting for applyHeights, by ascending row
+		private final IntArray pendingRows = new IntArray();
+		private final FloatArray pendingHeights = new FloatArray();
+
+		void add (long seq, float height) {
+			if (size == seqs.length) {
+				long[] grownSeqs = new long[size * 2];
+				System.arraycopy(seqs, 0, grownSeqs, 0, size);
+				seqs = grownSeqs;
+				double[] grownTops = new double[size * 2 + 1];
+				System.arraycopy(tops, 0, grownTops, 0, size + 1);
+				tops = grownTops;
+				boolean[] grownEstimated = new boolean[size * 2];
+				System.arraycopy(estimated, 0, grownEstimated, 0, size);
+				estimated = grownEstimated;
+			}
+			seqs[size] = seq;
+			tops[size + 1] = tops[size] + height;
+			estimated[size] = false;
+			size++;
+		}
+
+		void addEstimate (long seq, float height) {
+			add(seq, height);
+			estimated[size - 1] = true;
+		}
+
+		void setLastHeight (float height) {
+			if (size > start) {
+				tops[size] = tops[size - 1] + height;
+				estimated[size - 1] = false;
+			}
+		}
+
+		boolean isEstimated (int row) {
+			return estimated[row];
+		}
+
+		/**
+		 * Estimates the height of every row after the width changed, assuming wrapped rows keep their amount of text per line.
+		 *
+		 * @param scale      The old width divided by the new one.
+		 * @param lineHeight The height of a row with a single line.
+		 */
+		void estimate (float scale, float lineHeight) {
+			double oldTop = tops[start], top = oldTop;
+			for (int i = start; i < size; i++) {
+				double height = tops[i + 1] - oldTop;
+				oldTop = tops[i + 1];
+				int lines = Math.max(1, Math.round((float)(height / lineHeight)));
+				if (lines > 1) {
+					height = height * Math.max(1, Math.ceil(lines * scale)) / lines;
+				}
+				top += height;
+				tops[i + 1] = top;
+				estimated[i] = true;
+			}
+		}
+
+		/**
+		 * Sets the measured height of a row once {@link #applyHeights()} is called. Rows must be set in ascending order.
+		 */
+		void setHeight (int row, float height) {
+			pendingRows.add(row);
+			pendingHeights.add(height);
+		}
+
+		/**
+		 * Applies the heights set since the last call, moving the rows below them in a single pass.
+		 */
+		void applyHeights () {
+			if (pendingRows.size == 0) {
+				return;
+			}
+			int row = pendingRows.get(0), pending = 0;
+			double oldTop = tops[row], top = oldTop;
+			for (; row < size; row++) {
+				double oldBottom = tops[row + 1];
+				double height = oldBottom - oldTop;
+				if (pending < pendingRows.size && pendingRows.get(pending) == row) {
+					height = pendingHeights.get(pending++);
+					estimated[row] = false;
+				}
+				oldTop = oldBottom;
+				top += height;
+				tops[row + 1] = top;
+				if (pending == pendingRows.size && top == oldBottom) {
+					// the rows below did not move
+					break;
+				}
+			}
+			pendingRows.clear();
+			pendingHeights.clear();
+		}
+
+		/**
+		 * Drops rows evicted from the log. Their offsets are only removed from the arrays once they make up half of them, so
+		 * eviction stays O(1) amortized.
+		 */
+		void evictBefore (long seq) {
+			while (start < size && seqs[start] < seq) {
+				start++;
+			}
+			if (start == 0 || start < size / 2) {
+				return;
+			}
+			double base = tops[start];
+			int remaining = size - start;
+			System.arraycopy(seqs, start, seqs, 0, remaining);
+			System.arraycopy(estimated, start, estimated, 0, remaining);
+			for (int i = 0; i <= remaining; i++) {
+				tops[i] = tops[i + start] - base;
+			}
+			start = 0;
+			size = remaining;
+		}
+
+		void clear () {
+			start = size = 0;
+			tops[0] = 0;
+		}
+
+		/**
+		 * @return The index of the first row with a sequence number of at least <code>seq</code>, or <code>size</code>.
+		 */
+		int indexOf (long seq) {
+			int low = start, high = size;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (seqs[mid] < seq) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		double getHeightBefore (long seq) {
+			return tops[indexOf(seq)] - tops[start];
+		}
+
+		double getTotal () {
+			return tops[size] - tops[start];
+		}
+	}
+
+	/**
+	 * Walks the rows of several levels in order of their sequence numbers.
+	 */
+	static class VisibleRows {
+		private RowIndex[] indices;
+		private final int[] positions;
+		private float height;
+		private RowIndex index;
+		private int position;
+
+		VisibleRows (int levels) {
+			positions = new int[levels];
+		}
+
+		void start (RowIndex[] indices, long first) {
+			this.indices = indices;
+			for (int i = 0; i < indices.length; i++) {
+				positions[i] = indices[i].indexOf(first);
+			}
+		}
+
+		/**
+		 * @return The next sequence number before <code>end</code>, or -1 if there is none.
+		 */
+		long next (long end) {
+			int best = -1;
+			long bestSeq = end;
+			for (int i = 0; i < indices.length; i++) {
+				RowIndex index = indices[i];
+				if (positions[i] < index.size && index.seqs[positions[i]] < bestSeq) {
+					best = i;
+					bestSeq = index.seqs[positions[i]];
+				}
+			}
+			if (best < 0) {
+				return -1;
+			}
+			index = indices[best];
+			position = positions[best]++;
+			height = (float)(index.tops[position + 1] - index.tops[position]);
+			return bestSeq;
+		}
+
+		/**
+		 * @return The index holding the row last returned by {@link #next(long)}.
+		 */
+		RowIndex getIndex () {
+			return index;
+		}
+
+		/**
+		 * @return The position of the row last returned by {@link #next(long)} within its index.
+		 */
+		int getPosition () {
+			return position;
+		}
+
+		/**
+		 * @return The height of the row last returned by {@link #next(long)}.
+		 */
+		float getHeight () {
+			return height;
+		}
+	}
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.reflect.Method;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Invokes commands through a {@link MethodHandle} that is resolved once, avoiding the access checks and argument validation
+ * {@link java.lang.reflect.Method#invoke(Object, Object...)} performs on every call. Desktop and server JVMs only; this class is
+ * excluded from the GWT module and loaded reflectively by {@link CommandRegistry}.
+ */
+public final class MethodHandleInvoker implements CommandInvoker {
+	private static final MethodType GENERIC = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+	private final MethodHandle handle;
+	private final String name;
+
+	MethodHandleInvoker (java.lang.reflect.Method method) throws IllegalAccessException {
+		method.setAccessible(true);
+		handle = MethodHandles.lookup().unreflect(method).asSpreader(Object[].class, method.getParameterTypes().length)
+			.asType(GENERIC);
+		name = method.getName();
+	}
+
+	@Override public Object invoke (Object target, Object[] args) throws ReflectionException {
+		try {
+			return handle.invokeExact(target, args);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new ReflectionException("Exception occurred in method: " + name, t);
+		}
+	}
+
+	/**
+	 * Creates {@link MethodHandleInvoker}s, falling back to a {@link ReflectionInvoker} for any method that cannot be unreflected.
+	 */
+	public static class Factory implements CommandInvoker.Factory {
+		@Override public CommandInvoker create (Method method) {
+			try {
+				Class<?> type = method.getDeclaringClass();
+				java.lang.reflect.Method m = type.getMethod(method.getName(), method.getParameterTypes());
+				return new MethodHandleInvoker(m);
+			} catch (Exception e) {
+				return ReflectionInvoker.FACTORY.create(method);
+			}
+		}
+	}
+}
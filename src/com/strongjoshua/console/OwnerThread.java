@@ -0,0 +1,42 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+/**
+ * Remembers the thread a console was created on. This base class is used where there is only one thread (GWT) and always reports
+ * the current thread as the owner; on the JVM {@link #create()} returns a {@link JvmOwnerThread}.
+ */
+public class OwnerThread {
+	private static final String JVM_OWNER_THREAD = "com.strongjoshua.console.JvmOwnerThread";
+
+	/**
+	 * @return An instance bound to the calling thread.
+	 */
+	public static OwnerThread create () {
+		try {
+			Class<?> type = ClassReflection.forName(JVM_OWNER_THREAD);
+			return (OwnerThread)ClassReflection.newInstance(type);
+		} catch (Throwable t) {
+			return new OwnerThread();
+		}
+	}
+
+	/**
+	 * @return True if called from the owning thread.
+	 */
+	public boolean isCurrent () {
+		return true;
+	}
+}
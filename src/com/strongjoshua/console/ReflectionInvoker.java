@@ -0,0 +1,39 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.reflect.Method;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+/**
+ * Invokes commands through libGDX reflection. Works on every backend, and is the fallback wherever {@link MethodHandleInvoker} is not
+ * available.
+ */
+public class ReflectionInvoker implements CommandInvoker {
+	public static final Factory FACTORY = new Factory() {
+		@Override public CommandInvoker create (Method method) {
+			return new ReflectionInvoker(method);
+		}
+	};
+
+	private final Method method;
+
+	public ReflectionInvoker (Method method) {
+		this.method = method;
+		method.setAccessible(true);
+	}
+
+	@Override public Object invoke (Object target, Object[] args) throws ReflectionException {
+		return method.invoke(target, args);
+	}
+}
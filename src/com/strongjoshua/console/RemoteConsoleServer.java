@@ -0,0 +1,425 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts console commands over TCP, for example from <code>telnet</code> or <code>nc</code>. Each line a client sends is executed
+ * with {@link Console#execCommand(String, LogSink)} and the entries logged while it runs are sent back to that client, one per line,
+ * with errors starting with <code>"! "</code>.
+ * <p>
+ * All connections are served by a single thread using a {@link Selector}. Commands are executed on the application thread through
+ * {@link com.badlogic.gdx.Application#postRunnable(Runnable)}, or, if there is no application, whenever
+ * {@link #executeQueuedCommands()} is called. With {@link Console#setCommandFrameBudget(long)} they are spread over several
+ * frames like any other command. A client that does not read its output, or that sends commands faster than they are
+ * executed, is not read from until it catches up. Output that still does not fit is dropped and the client is told how many lines
+ * it missed.
+ * <p>
+ * Anyone who can connect can run every command, so the server listens on the loopback address unless told otherwise.
+ */
+public class RemoteConsoleServer implements Disposable {
+	private static final int MAX_LINE_LENGTH = 4096;
+	private static final int MAX_OUTPUT_BYTES = 64 * 1024;
+	private static final int MAX_QUEUED_COMMANDS = 16;
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final Console console;
+	private final Selector selector;
+	private final ServerSocketChannel server;
+	private final Thread thread;
+	private volatile boolean running = true;
+
+	private final ConcurrentLinkedQueue<Request> requests = new ConcurrentLinkedQueue<Request>();
+	// handed to the console, which queued it for a later frame; only used on the console's thread
+	private Request deferred;
+	// clients whose interest set must be updated by the selector thread
+	private final ConcurrentLinkedQueue<Client> updates = new ConcurrentLinkedQueue<Client>();
+	private final AtomicBoolean executionPosted = new AtomicBoolean();
+	private final Runnable executeTask = new Runnable() {
+		@Override public void run () {
+			executionPosted.set(false);
+			executeQueuedCommands();
+		}
+	};
+
+	private final AtomicInteger clients = new AtomicInteger();
+	// one encoder for the console's thread and one for the selector thread
+	private final CharsetEncoder outputEncoder = newEncoder();
+	private final CharsetEncoder noticeEncoder = newEncoder();
+
+	/**
+	 * Listens on the given port of the loopback address.
+	 *
+	 * @see #RemoteConsoleServer(Console, InetSocketAddress)
+	 */
+	public RemoteConsoleServer (Console console, int port) {
+		this(console, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+	}
+
+	/**
+	 * Starts listening.
+	 *
+	 * @param console The console to execute commands on.
+	 * @param address Where to listen. Port 0 picks a free port, see {@link #getPort()}.
+	 * @throws GdxRuntimeException If the address cannot be bound.
+	 */
+	public RemoteConsoleServer (Console console, InetSocketAddress address) {
+		this.console = console;
+		try {
+			selector = Selector.open();
+			server = ServerSocketChannel.open();
+			server.configureBlocking(false);
+			server.socket().bind(address);
+			server.register(selector, SelectionKey.OP_ACCEPT);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Unable to listen for console commands on " + address, e);
+		}
+		thread = new Thread(new Runnable() {
+			@Override public void run () {
+				selectLoop();
+			}
+		}, "Console remote server");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private static CharsetEncoder newEncoder () {
+		return UTF8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	/**
+	 * @return The port the server listens on.
+	 */
+	public int getPort () {
+		return server.socket().getLocalPort();
+	}
+
+	/**
+	 * Executes the commands clients have sent so far. Only needs to be called if there is no {@link Gdx#app} to post them to, and
+	 * must then be called from the thread that owns the console, e.g. once per frame.
+	 * <p>
+	 * While the console has commands queued for later frames, see {@link Console#setCommandFrameBudget(long)}, no more are handed to
+	 * it, so that they still count toward the limit of commands each client may have waiting.
+	 *
+	 * @return The number of commands handed to the console.
+	 */
+	public int executeQueuedCommands () {
+		int executed = 0;
+		while (true) {
+			if (console.getQueuedCommandCount() > 0) {
+				if (deferred != null || !requests.isEmpty()) {
+					// try again next frame
+					postExecution();
+				}
+				break;
+			}
+			if (deferred != null) {
+				finish(deferred);
+				deferred = null;
+			}
+			Request request = requests.poll();
+			if (request == null) {
+				break;
+			}
+			Client client = request.client;
+			if (!client.closed) {
+				console.execCommand(request.line, client);
+				executed++;
+				if (console.getQueuedCommandCount() > 0) {
+					deferred = request;
+					continue;
+				}
+			}
+			finish(request);
+		}
+		return executed;
+	}
+
+	/**
+	 * Stops counting a command that has run toward its client's limit.
+	 */
+	private void finish (Request request) {
+		request.client.queued.decrementAndGet();
+		requestUpdate(request.client);
+	}
+
+	private void selectLoop () {
+		while (running) {
+			try {
+				selector.select();
+			} catch (IOException e) {
+				e.printStackTrace();
+				break;
+			}
+			Client client;
+			while ((client = updates.poll()) != null) {
+				client.updateRequested.set(false);
+				updateInterest(client);
+			}
+			Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+			while (keys.hasNext()) {
+				SelectionKey key = keys.next();
+				keys.remove();
+				if (!key.isValid()) {
+					continue;
+				}
+				if (key.isAcceptable()) {
+					accept();
+					continue;
+				}
+				client = (Client)key.attachment();
+				try {
+					if (key.isReadable()) {
+						read(client);
+					}
+					if (key.isValid() && key.isWritable()) {
+						write(client);
+					}
+					updateInterest(client);
+				} catch (IOException e) {
+					close(client);
+				}
+			}
+		}
+		for (SelectionKey key : selector.keys()) {
+			if (key.attachment() instanceof Client) {
+				close((Client)key.attachment());
+			}
+		}
+	}
+
+	private void accept () {
+		try {
+			SocketChannel channel = server.accept();
+			if (channel == null) {
+				return;
+			}
+			channel.configureBlocking(false);
+			Client client = new Client(channel);
+			client.key = channel.register(selector, SelectionKey.OP_READ, client);
+			clients.incrementAndGet();
+		} catch (IOException e) {
+			// the client went away before it could be registered
+		}
+	}
+
+	private void read (Client client) throws IOException {
+		ByteBuffer input = client.input;
+		if (client.channel.read(input) < 0) {
+			close(client);
+			return;
+		}
+		byte[] bytes = input.array();
+		int start = 0;
+		for (int i = 0, n = input.position(); i < n; i++) {
+			if (bytes[i] != '\n') {
+				continue;
+			}
+			int end = i > start && bytes[i - 1] == '\r' ? i - 1 : i;
+			String line = new String(bytes, start, end - start, UTF8).trim();
+			if (line.length() > 0) {
+				client.queued.incrementAndGet();
+				requests.add(new Request(client, line));
+			}
+			start = i + 1;
+		}
+		if (start == 0 && !input.hasRemaining()) {
+			synchronized (client) {
+				client.send("Line too long, at most " + MAX_LINE_LENGTH + " bytes are allowed.", LogLevel.ERROR, noticeEncoder);
+			}
+			write(client);
+			close(client);
+			return;
+		}
+		input.limit(input.position());
+		input.position(start);
+		input.compact();
+		if (start > 0) {
+			postExecution();
+		}
+	}
+
+	private void postExecution () {
+		if (Gdx.app != null && executionPosted.compareAndSet(false, true)) {
+			Gdx.app.postRunnable(executeTask);
+		}
+	}
+
+	private void write (Client client) throws IOException {
+		synchronized (client) {
+			ByteBuffer output = client.output;
+			output.flip();
+			client.channel.write(output);
+			output.compact();
+			if (client.droppedLines > 0 && output.position() == 0) {
+				int dropped = client.droppedLines;
+				client.droppedLines = 0;
+				client.send(dropped + " lines of output were dropped because they were not read fast enough.", LogLevel.ERROR,
+					noticeEncoder);
+			}
+		}
+	}
+
+	private void requestUpdate (Client client) {
+		if (client.updateRequested.compareAndSet(false, true)) {
+			updates.add(client);
+			selector.wakeup();
+		}
+	}
+
+	private void updateInterest (Client client) {
+		if (client.closed || !client.key.isValid()) {
+			return;
+		}
+		int ops = 0;
+		synchronized (client) {
+			int buffered = client.output.position();
+			if (buffered > 0) {
+				ops |= SelectionKey.OP_WRITE;
+			}
+			if (buffered < MAX_OUTPUT_BYTES / 2 && client.droppedLines == 0 && client.queued.get() < MAX_QUEUED_COMMANDS) {
+				ops |= SelectionKey.OP_READ;
+			}
+		}
+		client.key.interestOps(ops);
+	}
+
+	private void close (Client client) {
+		if (client.closed) {
+			return;
+		}
+		client.closed = true;
+		clients.decrementAndGet();
+		if (client.key != null) {
+			client.key.cancel();
+		}
+		try {
+			client.channel.close();
+		} catch (IOException e) {
+			// already closed
+		}
+	}
+
+	/**
+	 * @return The number of connected clients.
+	 */
+	public int getClientCount () {
+		return clients.get();
+	}
+
+	/**
+	 * Stops listening, disconnects all clients and drops commands that were not executed yet.
+	 */
+	@Override public void dispose () {
+		if (!running) {
+			return;
+		}
+		running = false;
+		selector.wakeup();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			server.close();
+			selector.close();
+		} catch (IOException e) {
+			// nothing left to release
+		}
+		requests.clear();
+		deferred = null;
+	}
+
+	private static class Request {
+		final Client client;
+		final String line;
+
+		Request (Client client, String line) {
+			this.client = client;
+			this.line = line;
+		}
+	}
+
+	private class Client implements LogSink {
+		final SocketChannel channel;
+		SelectionKey key;
+		final ByteBuffer input = ByteBuffer.allocate(MAX_LINE_LENGTH);
+		// output and droppedLines are guarded by the client
+		final ByteBuffer output = ByteBuffer.allocate(MAX_OUTPUT_BYTES);
+		int droppedLines;
+		final AtomicInteger queued = new AtomicInteger();
+		final AtomicBoolean updateRequested = new AtomicBoolean();
+		volatile boolean closed;
+
+		Client (SocketChannel channel) {
+			this.channel = channel;
+		}
+
+		/**
+		 * Sends an entry logged by one of this client's commands. Called on the console's thread.
+		 */
+		@Override public void write (LogEntry entry) {
+			synchronized (this) {
+				send(entry.getText(), entry.getLevel(), outputEncoder);
+			}
+			requestUpdate(this);
+		}
+
+		@Override public void flush () {
+		}
+
+		@Override public void dispose () {
+		}
+
+		/**
+		 * Adds a line to the output, or counts it as dropped if it does not fit. Must hold the client.
+		 */
+		void send (CharSequence text, LogLevel level, CharsetEncoder encoder) {
+			int start = output.position();
+			if (level == LogLevel.ERROR && output.remaining() >= 2) {
+				output.put((byte)'!').put((byte)' ');
+			}
+			encoder.reset();
+			boolean fits = !encoder.encode(CharBuffer.wrap(text), output, true).isOverflow() && !encoder.flush(output).isOverflow()
+				&& output.hasRemaining();
+			if (!fits) {
+				output.position(start);
+				droppedLines++;
+				return;
+			}
+			output.put((byte)'\n');
+		}
+	}
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright 2018 StrongJoshua (strongjoshua@hotmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.strongjoshua.console;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A circular buffer that either holds at most a fixed number of items, evicting the oldest one in O(1) when full, or grows without
+ * bound. Items are indexed from oldest (0) to newest (<code>size - 1</code>).
+ *
+ * @param <T> The item type.
+ */
+public class RingBuffer<T> implements Iterable<T> {
+	/**
+	 * Use as the maximum size for a buffer that grows without bound.
+	 */
+	public static final int UNLIMITED = -1;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private T[] items;
+	private int head;
+	private int maxSize;
+
+	/**
+	 * Number of items in the buffer. Do not modify.
+	 */
+	public int size;
+
+	/**
+	 * Creates an unlimited buffer.
+	 */
+	public RingBuffer () {
+		this(UNLIMITED);
+	}
+
+	/**
+	 * @param maxSize The maximum number of items, or {@link #UNLIMITED}.
+	 */
+	@SuppressWarnings("unchecked") public RingBuffer (int maxSize) {
+		if (maxSize <= 0 && maxSize != UNLIMITED) {
+			throw new IllegalArgumentException("maxSize must be greater than 0 or UNLIMITED: " + maxSize);
+		}
+		this.maxSize = maxSize;
+		items = (T[])new Object[maxSize == UNLIMITED ? INITIAL_CAPACITY : Math.min(INITIAL_CAPACITY, maxSize)];
+	}
+
+	/**
+	 * Appends an item, evicting the oldest one if the buffer is full.
+	 *
+	 * @return The evicted item, or null if nothing was evicted.
+	 */
+	public T add (T item) {
+		T[] items = this.items;
+		if (size == maxSize) {
+			T evicted = items[head];
+			items[head] = item;
+			head = wrap(head + 1);
+			return evicted;
+		}
+		if (size == items.length) {
+			int capacity = size * 2;
+			if (maxSize != UNLIMITED && capacity > maxSize) {
+				capacity = maxSize;
+			}
+			resize(capacity);
+			items = this.items;
+		}
+		items[wrap(head + size)] = item;
+		size++;
+		return null;
+	}
+
+	/**
+	 * Removes and returns the oldest item.
+	 */
+	public T removeFirst () {
+		if (size == 0) {
+			throw new NoSuchElementException("RingBuffer is empty.");
+		}
+		T item = items[head];
+		items[head] = null;
+		head = wrap(head + 1);
+		size--;
+		return item;
+	}
+
+	/**
+	 * @param index 0 for the oldest item, <code>size - 1</code> for the newest.
+	 */
+	public T get (int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index can't be >= size: " + index + " >= " + size);
+		}
+		return items[wrap(head + index)];
+	}
+
+	public T first () {
+		return get(0);
+	}
+
+	public T last () {
+		return get(size - 1);
+	}
+
+	public boolean isEmpty () {
+		return size == 0;
+	}
+
+	public void clear () {
+		T[] items = this.items;
+		for (int i = 0; i < size; i++) {
+			items[wrap(head + i)] = null;
+		}
+		head = 0;
+		size = 0;
+	}
+
+	public int getMaxSize () {
+		return maxSize;
+	}
+
+	/**
+	 * Changes the maximum size. If the buffer holds more items than the new maximum, the oldest ones are dropped.
+	 *
+	 * @param maxSize The maximum number of items, or {@link #UNLIMITED}.
+	 */
+	public void setMaxSize (int maxSize) {
+		if (maxSize <= 0 && maxSize != UNLIMITED) {
+			throw new IllegalArgumentException("maxSize must be greater than 0 or UNLIMITED: " + maxSize);
+		}
+		this.maxSize = maxSize;
+		if (maxSize == UNLIMITED) {
+			return;
+		}
+		while (size > maxSize) {
+			removeFirst();
+		}
+		if (items.length > maxSize) {
+			resize(maxSize);
+		}
+	}
+
+	private int wrap (int index) {
+		int length = items.length;
+		return index >= length ? index - length : index;
+	}
+
+	@SuppressWarnings("unchecked") private void resize (int capacity) {
+		T[] items = this.items;
+		T[] resized = (T[])new Object[capacity];
+		int firstPart = Math.min(size, items.length - head);
+		System.arraycopy(items, head, resized, 0, firstPart);
+		System.arraycopy(items, 0, resized, firstPart, size - firstPart);
+		this.items = resized;
+		head = 0;
+	}
+
+	/**
+	 * Returns a new iterator from oldest to newest item. Adding items while iterating is not supported.
+	 */
+	@Override public Iterator<T> iterator () {
+		return new Iterator<T>() {
+			private int index;
+
+			@Override public boolean hasNext () {
+				return index < size;
+			}
+
+			@Override public T next () {
+				if (index >= size) {
+					throw new NoSuchElementException(String.valueOf(index));
+				}
+				return get(index++);
+			}
+
+			@Override public void remove () {
+				throw new UnsupportedOperationException("remove");
+			}
+		};
+	}
+}
@@ -0,0 +1,20 @@
+package com.strongjoshua.console.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a command on the console's background thread instead of the render thread, so long-running commands don't freeze the game.
+ * The console logs when the command starts and finishes; anything it logs, including exceptions, shows up on the next frame.
+ * <p>
+ * On a {@link com.strongjoshua.console.CommandExecutor} class it applies to all of its commands; a method can then opt out with
+ * <code>@AsyncCommand(false)</code>. Background commands run one at a time and must not touch the game state without
+ * synchronization, nor execute other commands.
+ */
+@Documented @Target({ElementType.METHOD, ElementType.TYPE}) @Inherited @Retention(RetentionPolicy.RUNTIME) public @interface AsyncCommand {
+	boolean value () default true;
+}
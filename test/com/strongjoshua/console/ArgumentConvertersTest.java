@@ -0,0 +1,96 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Vector2;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ArgumentConvertersTest {
+	private enum Weapon {
+		SWORD, LONG_BOW
+	}
+
+	private ArgumentConverters converters;
+
+	@Before public void setUp () {
+		converters = new ArgumentConverters();
+	}
+
+	private Object convert (Class<?> type, String text) {
+		// surrounding characters make sure converters respect the range
+		String padded = "[" + text + "]";
+		return converters.get(type).convert(padded, 1, padded.length() - 1);
+	}
+
+	@Test public void shouldConvertIntegersWithinTheirRange () {
+		assertEquals(Integer.MAX_VALUE, convert(int.class, String.valueOf(Integer.MAX_VALUE)));
+		assertEquals(Integer.MIN_VALUE, convert(Integer.class, String.valueOf(Integer.MIN_VALUE)));
+		assertEquals(Long.MIN_VALUE, convert(long.class, String.valueOf(Long.MIN_VALUE)));
+		assertEquals(Long.MAX_VALUE, convert(long.class, String.valueOf(Long.MAX_VALUE)));
+		assertEquals((byte)-128, convert(byte.class, "-128"));
+		assertEquals((short)12, convert(short.class, "+12"));
+
+		assertSame(ArgumentConverter.INVALID, convert(byte.class, "128"));
+		assertSame(ArgumentConverter.INVALID, convert(int.class, "2147483648"));
+		assertSame(ArgumentConverter.INVALID, convert(long.class, "9223372036854775808"));
+		assertSame(ArgumentConverter.INVALID, convert(int.class, "12a"));
+		assertSame(ArgumentConverter.INVALID, convert(int.class, "-"));
+		assertSame(ArgumentConverter.INVALID, convert(int.class, ""));
+	}
+
+	@Test public void shouldConvertDecimals () {
+		assertEquals(1.5f, convert(float.class, "1.5"));
+		assertEquals(-0.25, convert(Double.class, "-.25"));
+		assertEquals(1e-3, convert(double.class, "1E-3"));
+		assertEquals(Float.NEGATIVE_INFINITY, convert(float.class, "-Infinity"));
+
+		assertSame(ArgumentConverter.INVALID, convert(float.class, "."));
+		assertSame(ArgumentConverter.INVALID, convert(float.class, "1e"));
+		assertSame(ArgumentConverter.INVALID, convert(double.class, "one"));
+	}
+
+	@Test public void shouldConvertStringsBooleansAndCharacters () {
+		assertEquals("text", convert(String.class, "text"));
+		assertEquals(Boolean.TRUE, convert(boolean.class, "TRUE"));
+		assertEquals(Boolean.FALSE, convert(Boolean.class, "false"));
+		assertSame(ArgumentConverter.INVALID, convert(boolean.class, "yes"));
+		assertEquals('x', convert(char.class, "x"));
+		assertSame(ArgumentConverter.INVALID, convert(char.class, "xy"));
+	}
+
+	@Test public void shouldConvertEnumsIgnoringCase () {
+		assertSame(Weapon.LONG_BOW, convert(Weapon.class, "long_bow"));
+		assertSame(Weapon.SWORD, convert(Weapon.class, "Sword"));
+		assertSame(ArgumentConverter.INVALID, convert(Weapon.class, "axe"));
+	}
+
+	@Test public void shouldConvertVectorsAndColors () {
+		assertEquals(new Vector2(1.5f, -2), convert(Vector2.class, "1.5,-2"));
+		assertSame(ArgumentConverter.INVALID, convert(Vector2.class, "1.5"));
+
+		assertEquals(new Color(1, 0, 0, 1), convert(Color.class, "#ff0000"));
+		assertEquals(new Color(0, 0, 1, 0), convert(Color.class, "0000ff00"));
+		assertEquals(Color.GREEN, convert(Color.class, "green"));
+		assertSame(ArgumentConverter.INVALID, convert(Color.class, "#ff00"));
+		assertSame(ArgumentConverter.INVALID, convert(Color.class, "notacolor"));
+	}
+
+	@Test public void shouldUseRegisteredConverters () {
+		assertNull(converters.get(Object.class));
+
+		ArgumentConverter converter = new ArgumentConverter() {
+			@Override public Object convert (CharSequence text, int start, int end) {
+				return text.subSequence(start, end).toString().toUpperCase();
+			}
+		};
+		converters.register(Object.class, converter);
+		assertEquals("ASSET", convert(Object.class, "asset"));
+
+		converters.register(Object.class, null);
+		assertNull(converters.get(Object.class));
+	}
+}
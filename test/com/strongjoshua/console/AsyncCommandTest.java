@@ -0,0 +1,62 @@
+package com.strongjoshua.console;
+
+import com.strongjoshua.console.annotation.AsyncCommand;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncCommandTest {
+	private HeadlessConsole console;
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final CountDownLatch finished = new CountDownLatch(1);
+	private volatile Thread commandThread;
+
+	@Before public void setUp () {
+		console = new HeadlessConsole();
+		console.setCommandExecutor(new CommandExecutor() {
+			@AsyncCommand public void slow () throws InterruptedException {
+				commandThread = Thread.currentThread();
+				release.await();
+				finished.countDown();
+			}
+
+			public void fast () {
+				commandThread = Thread.currentThread();
+			}
+		});
+	}
+
+	@After public void tearDown () {
+		console.dispose();
+	}
+
+	@Test public void shouldRunMarkedCommandsInTheBackground () throws InterruptedException {
+		console.execCommand("slow");
+		assertEquals(1, console.getPendingCommandCount());
+
+		release.countDown();
+		assertTrue(finished.await(5, TimeUnit.SECONDS));
+		assertNotSame(Thread.currentThread(), commandThread);
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (console.getPendingCommandCount() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+		assertEquals(0, console.getPendingCommandCount());
+	}
+
+	@Test public void shouldRunOtherCommandsInline () {
+		console.execCommand("fast");
+
+		assertSame(Thread.currentThread(), commandThread);
+		assertEquals(0, console.getPendingCommandCount());
+	}
+}
@@ -0,0 +1,133 @@
+package com.strongjoshua.console;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BufferedSystemOutputTest {
+	private static final String NL = System.getProperty("line.separator");
+
+	private PrintStream originalOut, originalErr;
+	private ByteArrayOutputStream terminal, err;
+	private BufferedSystemOutput output;
+
+	@Before public void setUp () {
+		originalOut = System.out;
+		originalErr = System.err;
+		terminal = new ByteArrayOutputStream();
+		err = new ByteArrayOutputStream();
+		// both streams write to the same terminal, err is also captured on its own
+		final PrintStream shared = new PrintStream(terminal, true);
+		System.setOut(shared);
+		System.setErr(new PrintStream(new ByteArrayOutputStream() {
+			@Override public synchronized void write (byte[] b, int off, int len) {
+				err.write(b, off, len);
+				shared.write(b, off, len);
+			}
+		}, true));
+		output = new BufferedSystemOutput();
+	}
+
+	@After public void tearDown () {
+		output.dispose();
+		System.setOut(originalOut);
+		System.setErr(originalErr);
+	}
+
+	@Test public void shouldPrintEverythingOnDispose () {
+		output.write("first", LogLevel.DEFAULT);
+		output.write("second", LogLevel.SUCCESS);
+		output.dispose();
+
+		assertEquals("> first" + NL + "> second" + NL, terminal.toString());
+	}
+
+	@Test public void shouldKeepOrderAcrossStreams () {
+		output.write("a", LogLevel.DEFAULT);
+		output.write("b", LogLevel.ERROR);
+		output.write("c", LogLevel.ERROR);
+		output.write("d", LogLevel.COMMAND);
+		output.write("e", LogLevel.ERROR);
+		output.flush();
+
+		assertEquals("> a" + NL + "> b" + NL + "> c" + NL + "> d" + NL + "> e" + NL, terminal.toString());
+		assertEquals("> b" + NL + "> c" + NL + "> e" + NL, err.toString());
+	}
+
+	@Test public void shouldPrintInBackground () throws InterruptedException {
+		output.write("later", LogLevel.DEFAULT);
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (terminal.size() == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals("> later" + NL, terminal.toString());
+	}
+
+	@Test public void shouldKeepOrderWhileBuffersGrow () {
+		StringBuilder expected = new StringBuilder();
+		StringBuilder message = new StringBuilder();
+		for (int i = 0; i < 3000; i++) {
+			message.setLength(0);
+			message.append("entry ").append(i);
+			if (i % 500 == 0) {
+				for (int j = 0; j < 20000; j++) {
+					message.append('x');
+				}
+			}
+			output.write(message, i % 3 == 0 ? LogLevel.ERROR : LogLevel.DEFAULT);
+			expected.append("> ").append(message).append(NL);
+		}
+		output.dispose();
+
+		assertTrue(terminal.size() > 0);
+		assertEquals(expected.toString(), terminal.toString());
+	}
+
+	@Test public void shouldSleepUntilThereIsOutput () throws InterruptedException {
+		output.write("once", LogLevel.DEFAULT);
+		output.flush();
+
+		// without output the writer waits without a timeout instead of polling
+		long deadline = System.currentTimeMillis() + 5000;
+		while (output.writer.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(Thread.State.WAITING, output.writer.getState());
+
+		output.write("again", LogLevel.DEFAULT);
+		deadline = System.currentTimeMillis() + 5000;
+		while (!terminal.toString().endsWith("> again" + NL) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals("> once" + NL + "> again" + NL, terminal.toString());
+	}
+
+	@Test public void shouldShareOneShutdownHookUntilAllAreDisposed () {
+		Thread hook = BufferedSystemOutput.shutdownHook;
+		assertNotNull(hook);
+		BufferedSystemOutput[] outputs = new BufferedSystemOutput[20];
+		for (int i = 0; i < outputs.length; i++) {
+			outputs[i] = new BufferedSystemOutput();
+			assertSame(hook, BufferedSystemOutput.shutdownHook);
+		}
+		for (BufferedSystemOutput other : outputs) {
+			other.dispose();
+		}
+		assertSame(hook, BufferedSystemOutput.shutdownHook);
+
+		output.dispose();
+		assertNull(BufferedSystemOutput.shutdownHook);
+		// disposing again does nothing
+		output.dispose();
+	}
+}
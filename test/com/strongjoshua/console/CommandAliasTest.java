@@ -0,0 +1,129 @@
+package com.strongjoshua.console;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CommandAliasTest {
+	private HeadlessConsole console;
+	private final List<String> calls = new ArrayList<String>();
+
+	@Before public void setUp () {
+		console = new HeadlessConsole();
+		console.setLoggingToSystem(false);
+		console.setCommandExecutor(new Executor());
+	}
+
+	@After public void tearDown () {
+		console.dispose();
+	}
+
+	private class Executor extends CommandExecutor {
+		public void setHealth (int health) {
+			calls.add("health " + health);
+		}
+
+		public void setInvuln (boolean invuln) {
+			calls.add("invuln " + invuln);
+		}
+	}
+
+	private String lastError () {
+		for (int i = console.log.size() - 1; i >= 0; i--) {
+			if (console.log.get(i).getLevel() == LogLevel.ERROR) {
+				return console.log.get(i).getText().toString();
+			}
+		}
+		return null;
+	}
+
+	@Test public void shouldRunTheAliasedCommands () {
+		console.execCommand("alias god \"sethealth 9999; setinvuln true\"");
+		console.execCommand("GOD");
+
+		assertEquals(2, calls.size());
+		assertEquals("health 9999", calls.get(0));
+		assertEquals("invuln true", calls.get(1));
+		assertEquals(null, lastError());
+	}
+
+	@Test public void shouldRunOtherAliases () {
+		assertTrue(console.setAlias("heal", "sethealth 100"));
+		assertTrue(console.setAlias("respawn", "heal; setinvuln false"));
+		assertTrue(console.setAlias("heal", "sethealth 50"));
+
+		console.execCommand("respawn");
+		assertEquals("health 50", calls.get(0));
+		assertEquals("invuln false", calls.get(1));
+
+		assertTrue(console.removeAlias("heal"));
+		console.execCommand("respawn");
+		assertEquals("respawn: Alias heal was removed.", lastError());
+		assertEquals(3, calls.size());
+	}
+
+	@Test public void shouldRejectCycles () {
+		assertFalse(console.setAlias("loop", "loop"));
+		assertTrue(console.setAlias("a", "sethealth 1"));
+		assertTrue(console.setAlias("b", "a"));
+		assertFalse(console.setAlias("a", "b"));
+		assertEquals("Unable to define alias a: Running b would run a again.", lastError());
+
+		console.execCommand("b");
+		assertEquals("health 1", calls.get(0));
+	}
+
+	@Test public void shouldRejectInvalidDefinitions () {
+		assertFalse(console.setAlias("fly", "teleport 1"));
+		assertEquals("Unable to define alias fly: No such method found.", lastError());
+		assertFalse(console.setAlias("sethealth", "setinvuln true"));
+		assertFalse(console.setAlias("two words", "setinvuln true"));
+		assertFalse(console.setAlias("bad", "sethealth lots"));
+
+		assertTrue(console.setAlias("god", "setinvuln true"));
+		console.execCommand("god now");
+		assertEquals("god is an alias and takes no arguments.", lastError());
+		assertTrue(calls.isEmpty());
+	}
+
+	@Test public void shouldResolveAgainWhenTheExecutorChanges () {
+		assertTrue(console.setAlias("god", "sethealth 9999"));
+		console.setCommandExecutor(new Executor());
+
+		console.execCommand("god");
+		assertEquals("health 9999", calls.get(0));
+
+		console.setCommandExecutor(new CommandExecutor());
+		console.execCommand("god");
+		assertEquals("god: No such method found.", lastError());
+		assertEquals(1, calls.size());
+	}
+
+	@Test public void shouldLetExecutorsDeclareTheirOwnAliasCommands () {
+		console.setCommandExecutor(new Executor() {
+			@Override public void aliases () {
+				calls.add("aliases");
+			}
+
+			public void alias (String name) {
+				calls.add("alias " + name);
+			}
+		});
+
+		console.execCommand("aliases");
+		console.execCommand("alias bob");
+		console.execCommand("alias god \"sethealth 9999\"");
+		console.execCommand("god");
+
+		assertEquals("aliases", calls.get(0));
+		assertEquals("alias bob", calls.get(1));
+		assertEquals("health 9999", calls.get(2));
+	}
+}
@@ -0,0 +1,76 @@
+package com.strongjoshua.console;
+
+import com.strongjoshua.console.annotation.HiddenCommand;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CommandCompleterTest {
+	private Console console;
+	private CommandRegistry commands;
+	private CommandCompleter completer;
+
+	@Before public void setUp () {
+		console = new HeadlessConsole();
+		console.setCommandExecutor(new Executor());
+		commands = ((AbstractConsole)console).commands;
+		completer = new CommandCompleter();
+	}
+
+	@Test public void shouldCycleThroughMatchesAlphabetically () {
+		completer.set(commands, console, "spa");
+
+		assertEquals("spawnBoss", completer.next());
+		assertEquals("spawnEnemy", completer.next());
+		assertEquals("spawnItem", completer.next());
+		assertEquals("spa", completer.next());
+		assertEquals("spawnBoss", completer.next());
+	}
+
+	@Test public void shouldIgnoreCase () {
+		completer.set(commands, console, "SPAWNE");
+
+		assertEquals("spawnEnemy", completer.next());
+		assertEquals("spawne", completer.next());
+	}
+
+	@Test public void shouldIncludeInheritedCommandsFromTheWholeHierarchy () {
+		completer.set(commands, console, "he");
+
+		assertEquals("heal", completer.next());
+		assertEquals("help", completer.next());
+	}
+
+	@Test public void shouldOnlyListHiddenCommandsIfAllowed () {
+		completer.set(commands, console, "secret");
+		assertTrue(completer.isNew());
+
+		console.setDisplayHiddenCommands(true);
+		completer.set(commands, console, "secret");
+		assertEquals("secretCommand", completer.next());
+	}
+
+	public static class BaseExecutor extends CommandExecutor {
+		public void heal () {
+		}
+	}
+
+	public static class Executor extends BaseExecutor {
+		public void spawnItem (String item) {
+		}
+
+		public void spawnEnemy (String enemy) {
+		}
+
+		public void spawnBoss () {
+		}
+
+		public void spawnBoss (int level) {
+		}
+
+		@HiddenCommand public void secretCommand () {
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.files.FileHandle;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CommandFrameBudgetTest {
+	private HeadlessConsole console;
+	private final List<String> calls = new ArrayList<String>();
+
+	@Before public void setUp () {
+		console = new HeadlessConsole();
+		console.setLoggingToSystem(false);
+		console.setCommandExecutor(new CommandExecutor() {
+			public void step (int n) {
+				calls.add("step " + n);
+			}
+
+			public void both () {
+				console.execCommand("step 10");
+				console.execCommand("step 11");
+			}
+		});
+		// so small that only one command fits into each frame
+		console.setCommandFrameBudget(1);
+	}
+
+	@After public void tearDown () {
+		console.dispose();
+	}
+
+	@Test public void shouldRunOneCommandPerFrameInOrder () {
+		console.execCommand("step 1");
+		console.execCommand("step 2; step 3");
+		console.execCommand("both");
+		assertEquals(0, calls.size());
+		assertEquals(3, console.getQueuedCommandCount());
+
+		console.draw();
+		assertEquals(1, calls.size());
+		assertEquals(2, console.getSpilledCommandCount());
+
+		console.draw();
+		assertEquals(3, calls.size());
+		assertEquals("step 3", calls.get(2));
+		assertEquals(2, console.getSpilledCommandCount());
+
+		// commands run by a queued command are not queued again
+		console.draw();
+		assertEquals(5, calls.size());
+		assertEquals("step 11", calls.get(4));
+		assertEquals(0, console.getQueuedCommandCount());
+		assertEquals(2, console.getSpilledCommandCount());
+	}
+
+	@Test public void shouldRunEverythingWithoutBudget () {
+		console.execCommand("step 1");
+		console.execCommand("step 2");
+		console.setCommandFrameBudget(0);
+
+		console.draw();
+		assertEquals(2, calls.size());
+
+		console.execCommand("step 3");
+		assertEquals(3, calls.size());
+		assertEquals(0, console.getSpilledCommandCount());
+	}
+
+	@Test public void shouldRunScriptsOneCommandPerFrame () throws IOException {
+		File file = File.createTempFile("console-script", ".txt");
+		file.deleteOnExit();
+		FileHandle script = new FileHandle(file);
+		script.writeString("step 1\nstep 2\nstep 3\n", false);
+
+		console.execScript(script);
+		console.execCommand("step 4");
+		console.execScript(script);
+		assertEquals(3, console.getQueuedCommandCount());
+
+		for (int i = 0; i < 7; i++) {
+			console.draw();
+			assertEquals(i + 1, calls.size());
+			// a script waiting between its steps counts once, like the commands behind it
+			assertEquals(3, console.getSpilledCommandCount());
+		}
+		assertEquals("step 4", calls.get(3));
+		assertEquals("step 3", calls.get(6));
+		assertEquals(0, console.getQueuedCommandCount());
+		script.delete();
+	}
+
+	@Test public void shouldCountEachSpilledCommandOnce () {
+		console.execCommand("step 1");
+		console.execCommand("step 2");
+		console.execCommand("step 3");
+		console.draw();
+		assertEquals(2, console.getSpilledCommandCount());
+
+		// only the new command is counted, not the one that already waited a frame
+		console.execCommand("step 4");
+		console.draw();
+		assertEquals(3, console.getSpilledCommandCount());
+		console.draw();
+		assertEquals(3, console.getSpilledCommandCount());
+		console.draw();
+		assertEquals(4, calls.size());
+		assertEquals(0, console.getQueuedCommandCount());
+		assertEquals(3, console.getSpilledCommandCount());
+	}
+
+	@Test public void shouldWriteOutputOfQueuedCommands () {
+		final List<String> output = new ArrayList<String>();
+		console.execCommand("step nope", new LogSink() {
+			@Override public void write (LogEntry entry) {
+				output.add(entry.getText().toString());
+			}
+
+			@Override public void flush () {
+			}
+
+			@Override public void dispose () {
+			}
+		});
+		console.log("unrelated");
+		console.draw();
+
+		assertEquals(2, output.size());
+		assertEquals("step nope", output.get(0));
+		assertEquals("Bad parameter 1 \"nope\": expected int.", output.get(1));
+	}
+}
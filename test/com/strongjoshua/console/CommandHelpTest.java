@@ -0,0 +1,73 @@
+package com.strongjoshua.console;
+
+import com.strongjoshua.console.annotation.ConsoleDoc;
+import com.strongjoshua.console.annotation.HiddenCommand;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CommandHelpTest {
+	private HeadlessConsole console;
+
+	@Before public void setUp () {
+		console = new HeadlessConsole();
+		console.setLoggingToSystem(false);
+		console.setCommandExecutor(new Executor());
+	}
+
+	@After public void tearDown () {
+		console.dispose();
+	}
+
+	private class Executor extends CommandExecutor {
+		@ConsoleDoc(description = "Spawns monsters.", paramDescriptions = {"What to spawn", "How many"}) public void spawn (String type,
+			int count) {
+		}
+
+		public void spawn (String type) {
+		}
+
+		@HiddenCommand public void secret () {
+		}
+	}
+
+	private boolean logged (String text) {
+		for (int i = 0; i < console.log.size(); i++) {
+			if (console.log.get(i).getText().toString().equals(text)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Test public void shouldListTheRegisteredCommands () {
+		console.printCommands();
+
+		assertTrue(logged("spawn : String"));
+		assertTrue(logged("spawn : String, int"));
+		assertFalse(logged("secret : "));
+
+		console.setDisplayHiddenCommands(true);
+		console.printCommands();
+		assertTrue(logged("secret : "));
+	}
+
+	@Test public void shouldPrintTheDocOfEveryOverload () {
+		console.printHelp("SPAWN");
+
+		assertTrue(logged("spawn: String"));
+		assertTrue(logged("spawn: Spawns monsters.\n       String: What to spawn\n       int: How many"));
+	}
+
+	@Test public void shouldReportUnknownCommands () {
+		int size = console.log.size();
+		console.printHelp("despawn");
+
+		assertEquals(size + 1, console.log.size());
+		assertTrue(logged("Command does not exist."));
+	}
+}
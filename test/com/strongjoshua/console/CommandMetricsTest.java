@@ -0,0 +1,75 @@
+package com.strongjoshua.console;
+
+import com.strongjoshua.console.CommandMetrics.CommandStats;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CommandMetricsTest {
+	private HeadlessConsole console;
+
+	@Before public void setUp () {
+		console = new HeadlessConsole();
+		console.setLoggingToSystem(false);
+		console.setCommandExecutor(new CommandExecutor() {
+			public void work (int a) {
+			}
+
+			public void fail () {
+				throw new IllegalStateException();
+			}
+		});
+	}
+
+	@After public void tearDown () {
+		console.dispose();
+	}
+
+	@Test public void shouldBeDisabledByDefault () {
+		console.execCommand("work 1");
+
+		assertNull(console.getCommandMetrics());
+	}
+
+	@Test public void shouldCountInvocationsAndFailures () {
+		console.setCommandMetricsEnabled(true);
+		console.execCommand("work 1");
+		console.execCommand("WORK 2");
+		console.execCommand("work x");
+		console.execCommand("fail");
+		console.execCommand("missing");
+
+		CommandMetrics metrics = console.getCommandMetrics();
+		CommandStats work = metrics.get("work");
+		assertEquals(2, work.getInvocations());
+		assertEquals(0, work.getFailures());
+		assertEquals(1, work.getBadParameters());
+		assertEquals(1, metrics.get("fail").getFailures());
+		assertEquals(1, metrics.getUnknownCommands());
+
+		console.setCommandMetricsEnabled(false);
+		assertNull(console.getCommandMetrics());
+	}
+
+	@Test public void shouldEstimatePercentilesFromTheHistogram () {
+		CommandMetrics metrics = new CommandMetrics();
+		for (int i = 0; i < 90; i++) {
+			metrics.recordInvocation("cmd", 1000, true);
+		}
+		for (int i = 0; i < 10; i++) {
+			metrics.recordInvocation("cmd", 1000000, true);
+		}
+
+		CommandStats stats = metrics.get("cmd");
+		long p50 = stats.getPercentileNanos(0.5);
+		long p99 = stats.getPercentileNanos(0.99);
+		assertTrue(p50 >= 512 && p50 <= 1024);
+		assertTrue(p99 >= 524288 && p99 <= 1000000);
+		assertEquals(1000000, stats.getMaxNanos());
+		assertEquals(100900, stats.getMeanNanos());
+	}
+}
@@ -0,0 +1,124 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Vector2;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class CommandScriptTest {
+	private HeadlessConsole console;
+	private FileHandle script;
+	private final List<String> calls = new ArrayList<String>();
+	private final List<Vector2> positions = new ArrayList<Vector2>();
+
+	@Before public void setUp () throws IOException {
+		console = new HeadlessConsole();
+		console.setLoggingToSystem(false);
+		console.setCommandExecutor(new CommandExecutor() {
+			public void spawn (String name, int count) {
+				calls.add("spawn " + name + " " + count);
+			}
+
+			public void teleport (Vector2 position) {
+				positions.add(position);
+				calls.add("teleport " + position);
+			}
+
+			public void crash () {
+				throw new IllegalStateException("crashed");
+			}
+		});
+		File file = File.createTempFile("console-script", ".txt");
+		file.deleteOnExit();
+		script = new FileHandle(file);
+	}
+
+	@After public void tearDown () {
+		console.dispose();
+		script.delete();
+	}
+
+	private List<String> errors () {
+		List<String> errors = new ArrayList<String>();
+		for (int i = 0; i < console.log.size(); i++) {
+			LogEntry entry = console.log.get(i);
+			if (entry.getLevel() == LogLevel.ERROR) {
+				errors.add(entry.getText().toString());
+			}
+		}
+		return errors;
+	}
+
+	@Test public void shouldRunEveryCommandInOrder () {
+		script.writeString("# setup\nspawn orc 2\n\nteleport 1,2; spawn \"big troll\" 1\n", false);
+
+		console.execScript(script);
+
+		assertEquals(3, calls.size());
+		assertEquals("spawn orc 2", calls.get(0));
+		assertEquals("teleport (1.0,2.0)", calls.get(1));
+		assertEquals("spawn big troll 1", calls.get(2));
+		assertTrue(errors().isEmpty());
+	}
+
+	@Test public void shouldReportErrorsWithLineNumbersAndContinue () {
+		script.writeString("spawn orc two\nfly\nspawn orc 1\ncrash\nsay \"unterminated\n", false);
+
+		console.execScript(script);
+
+		assertEquals(1, calls.size());
+		List<String> errors = errors();
+		assertEquals("Line 1: Bad parameter 2 \"two\": expected int.", errors.get(0));
+		assertEquals("Line 2: No such method found.", errors.get(1));
+		assertEquals("Line 4: crash failed.", errors.get(errors.size() - 3));
+		assertTrue(errors.get(errors.size() - 2).startsWith("Line 5: "));
+		assertEquals("Script " + script.path() + " finished with 4 errors.", errors.get(errors.size() - 1));
+	}
+
+	@Test public void shouldReuseParsedScriptUntilItChanges () {
+		console.setCommandMetricsEnabled(true);
+		script.writeString("fly\nteleport 3,4\n", false);
+
+		console.execScript(script);
+		console.execScript(script);
+
+		// unknown commands are counted when the script is parsed, not when it runs
+		assertEquals(1, console.getCommandMetrics().getUnknownCommands());
+		assertEquals(2, positions.size());
+		assertNotSame(positions.get(0), positions.get(1));
+
+		script.writeString("spawn orc 5\n", false);
+		console.execScript(script);
+		assertEquals("spawn orc 5", calls.get(calls.size() - 1));
+	}
+
+	@Test public void shouldReportMissingScripts () {
+		script.delete();
+
+		console.execScript(script);
+
+		assertEquals("Unable to read script " + script.path() + ".", errors().get(0));
+	}
+
+	@Test public void shouldLetExecutorsDeclareTheirOwnExec () {
+		console.setCommandExecutor(new CommandExecutor() {
+			@Override public void exec (String path) {
+				calls.add("exec " + path);
+			}
+		});
+
+		console.execCommand("exec level1");
+
+		assertEquals("exec level1", calls.get(0));
+	}
+}
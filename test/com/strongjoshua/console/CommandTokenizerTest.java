@@ -0,0 +1,106 @@
+package com.strongjoshua.console;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class CommandTokenizerTest {
+	private CommandTokenizer tokens;
+
+	@Before public void setUp () {
+		tokens = new CommandTokenizer();
+	}
+
+	@Test public void shouldSplitOnAnyWhitespace () {
+		assertTrue(tokens.tokenize("  spawn\torc   2 "));
+
+		assertEquals(1, tokens.getCommandCount());
+		assertEquals(2, tokens.getArgumentCount(0));
+		assertEquals("spawn", tokens.getToken(0));
+		assertEquals("orc", tokens.getToken(1));
+		assertEquals("2", tokens.getToken(2));
+	}
+
+	@Test public void shouldKeepQuotedTextTogether () {
+		assertTrue(tokens.tokenize("say \"hello world\" 'single quoted' \"\" a\"b c\""));
+
+		assertEquals(4, tokens.getArgumentCount(0));
+		assertEquals("hello world", tokens.getToken(1));
+		assertEquals("single quoted", tokens.getToken(2));
+		assertEquals("", tokens.getToken(3));
+		assertEquals("ab c", tokens.getToken(4));
+	}
+
+	@Test public void shouldKeepApostrophesInsideTokens () {
+		assertTrue(tokens.tokenize("say don't \"it's fine\""));
+
+		assertEquals(2, tokens.getArgumentCount(0));
+		assertEquals("don't", tokens.getToken(1));
+		assertEquals("it's fine", tokens.getToken(2));
+	}
+
+	@Test public void shouldUnescapeCharacters () {
+		assertTrue(tokens.tokenize("say a\\\\b \\\"quoted\\\" \"in \\\"side\\\"\" \\;"));
+
+		assertEquals(4, tokens.getArgumentCount(0));
+		assertEquals("a\\b", tokens.getToken(1));
+		assertEquals("\"quoted\"", tokens.getToken(2));
+		assertEquals("in \"side\"", tokens.getToken(3));
+		assertEquals(";", tokens.getToken(4));
+	}
+
+	@Test public void shouldKeepBackslashesThatEscapeNothing () {
+		assertTrue(tokens.tokenize("printLog C:\\logs\\out.txt \"D:\\new dir\\out.txt\" C:\\"));
+
+		assertEquals(3, tokens.getArgumentCount(0));
+		assertEquals("C:\\logs\\out.txt", tokens.getToken(1));
+		assertEquals("D:\\new dir\\out.txt", tokens.getToken(2));
+		assertEquals("C:\\", tokens.getToken(3));
+	}
+
+	@Test public void shouldSplitCommandsAndSkipEmptyOnes () {
+		assertTrue(tokens.tokenize(";; first 1;second \"a;b\" ;  ; third"));
+
+		assertEquals(3, tokens.getCommandCount());
+		assertEquals("first", tokens.getToken(tokens.getCommandToken(0)));
+		assertEquals(1, tokens.getArgumentCount(0));
+		assertEquals("second", tokens.getToken(tokens.getCommandToken(1)));
+		assertEquals("a;b", tokens.getToken(tokens.getCommandToken(1) + 1));
+		assertEquals("third", tokens.getToken(tokens.getCommandToken(2)));
+		assertEquals(0, tokens.getArgumentCount(2));
+	}
+
+	@Test public void shouldExposeTokensAsRanges () {
+		assertTrue(tokens.tokenize("ab \"c d\""));
+
+		assertEquals("abc d", tokens.toString());
+		assertEquals(0, tokens.getTokenStart(0));
+		assertEquals(2, tokens.getTokenEnd(0));
+		assertEquals("c d", tokens.subSequence(tokens.getTokenStart(1), tokens.getTokenEnd(1)).toString());
+	}
+
+	@Test public void shouldReportMalformedLines () {
+		assertFalse(tokens.tokenize("ok; say \"unterminated"));
+		assertNotNull(tokens.getError());
+		assertEquals(1, tokens.getCommandCount());
+
+		assertTrue(tokens.tokenize("   "));
+		assertEquals(0, tokens.getCommandCount());
+	}
+
+	@Test public void shouldGrowBuffersForLongLines () {
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			line.append("token").append(i).append(i % 10 == 9 ? "; " : " ");
+		}
+		assertTrue(tokens.tokenize(line));
+
+		assertEquals(20, tokens.getCommandCount());
+		assertEquals(200, tokens.getTokenCount());
+		assertEquals("token199", tokens.getToken(199));
+	}
+}
@@ -7,6 +7,7 @@ package com.strongjoshua.console;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -18,6 +19,7 @@ public class ConsoleTest {
 	private Console headlessConsole;
 	private CommandExecutor commandExec;
 	private boolean commandFound;
+	private String stringArgument;
 
 	@Before public void setup () {
 		commandFound = false;
@@ -26,6 +28,7 @@ public class ConsoleTest {
 
 			public void testString (String str) {
 				commandFound = true;
+				stringArgument = str;
 
 				console.log(str);
 			}
@@ -137,10 +140,38 @@ public class ConsoleTest {
 		assertTrue(commandFound);
 	}
 
+	@Test public void test_QuotedStringArgument () {
+		headlessConsole.execCommand("testString \"two words\"");
+
+		assertTrue(commandFound);
+		assertEquals("two words", stringArgument);
+	}
+
+	@Test public void test_MultipleCommands () {
+		headlessConsole.execCommand("testObject test test; testInteger 1 2");
+
+		assertTrue(commandFound);
+	}
+
 	@Test public void test_ObjectArgument () {
 		headlessConsole.execCommand("testObject test test");
 
 		assertFalse(commandFound);
 	}
 
+	@Test public void test_InvalidArgument () {
+		headlessConsole.execCommand("testInteger 1 two");
+
+		assertFalse(commandFound);
+	}
+
+	@Test public void test_RegisteredConverter () {
+		headlessConsole.execCommand("testObject test");
+		assertFalse(commandFound);
+
+		headlessConsole.registerArgumentConverter(Object.class, ArgumentConverters.STRING);
+		headlessConsole.execCommand("testObject test");
+		assertTrue(commandFound);
+	}
+
 }
@@ -0,0 +1,181 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.LongArray;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LogColdStorageTest {
+	private static final int COUNT = 20000;
+
+	private Log log;
+
+	@Before public void setUp () {
+		log = new Log();
+		log.setCompressionEnabled(true);
+	}
+
+	private static String text (int i) {
+		return "entry " + i + (i % 3 == 0 ? " gr\u00fc\u00dfe \u65e5\u672c \ud83d\ude00" : "");
+	}
+
+	private void fill () {
+		for (int i = 0; i < COUNT; i++) {
+			log.addEntry(text(i), i % 2 == 0 ? LogLevel.DEFAULT : LogLevel.ERROR);
+		}
+	}
+
+	@Test public void shouldCompressOldEntriesOfUnlimitedLogs () {
+		fill();
+
+		assertEquals(COUNT, log.size());
+		assertTrue(log.getCompressedCount() > COUNT / 2);
+		assertTrue(log.getCompressedBytes() > 0);
+		assertTrue(log.getLogEntries().size < COUNT / 2);
+	}
+
+	@Test public void shouldRestoreCompressedEntries () {
+		long before = System.currentTimeMillis();
+		fill();
+
+		for (int i : new int[] {0, 1, 2047, 2048, COUNT / 2, 1, COUNT - 1, 3}) {
+			LogEntry entry = log.get(i);
+			assertEquals(text(i), entry.getText().toString());
+			assertEquals(i % 2 == 0 ? LogLevel.DEFAULT : LogLevel.ERROR, entry.getLevel());
+			assertTrue(entry.getTimeStamp() >= before);
+		}
+		int i = 0;
+		for (LogEntry entry : log) {
+			assertEquals(text(i++), entry.getText().toString());
+		}
+		assertEquals(COUNT, i);
+	}
+
+	@Test public void shouldKeepRepeatCountsOfCompressedEntries () {
+		log.setCollapseRepeats(true);
+		for (int i = 0; i < COUNT; i++) {
+			LogEntry entry = null;
+			for (int r = i % 4; r >= 0; r--) {
+				entry = log.addEntry(text(i), LogLevel.DEFAULT);
+			}
+			entry.setLastTimeStamp(entry.getTimeStamp() + i % 4);
+		}
+
+		assertTrue(log.getCompressedCount() > 0);
+		for (int i = 0; i < COUNT; i++) {
+			LogEntry entry = log.get(i);
+			assertEquals(i % 4 + 1, entry.getRepeatCount());
+			assertEquals(entry.getTimeStamp() + i % 4, entry.getLastTimeStamp());
+		}
+	}
+
+	@Test public void shouldThawEntriesWhenCapped () {
+		fill();
+		log.setMaxEntries(COUNT - 10);
+
+		assertEquals(0, log.getCompressedCount());
+		assertEquals(COUNT - 10, log.size());
+		assertEquals(text(10), log.get(0).getText().toString());
+
+		log.setMaxEntries(Console.UNLIMITED_ENTRIES);
+		log.addEntry("new", LogLevel.DEFAULT);
+		assertTrue(log.getCompressedCount() > 0);
+		assertEquals("new", log.get(log.size() - 1).getText().toString());
+	}
+
+	@Test public void shouldKeepEntriesWhenDisabled () {
+		fill();
+		log.setCompressionEnabled(false);
+
+		assertEquals(0, log.getCompressedCount());
+		assertEquals(COUNT, log.getLogEntries().size);
+		assertEquals(text(5), log.get(5).getText().toString());
+
+		log.setCompressionEnabled(true);
+		assertTrue(log.getCompressedCount() > 0);
+		assertEquals(text(5), log.get(5).getText().toString());
+	}
+
+	@Test public void shouldFindAndCopyCompressedEntries () {
+		log.setIndexCapacity(LogIndex.DEFAULT_MAX_POSTINGS);
+		fill();
+		LongArray found = new LongArray();
+
+		assertEquals(1, log.find("entry 6", found));
+		assertEquals(6, found.get(0));
+		Log snapshot = log.snapshot();
+		assertEquals(log.getCompressedCount(), snapshot.getCompressedCount());
+
+		log.setMaxEntries(100);
+		assertEquals(0, log.find("entry 6", found));
+		assertEquals(1, log.find("entry " + (COUNT - 1), found));
+
+		log.clear();
+		assertEquals(0, log.size());
+		assertEquals(COUNT, snapshot.size());
+		assertEquals(text(7), snapshot.get(7).getText().toString());
+		assertEquals(text(COUNT - 1), snapshot.get(COUNT - 1).getText().toString());
+	}
+
+	@Test public void shouldReadLevelsWithoutUnpacking () {
+		fill();
+
+		for (int i : new int[] {0, 1, 2048, COUNT - 1}) {
+			assertEquals(log.get(i).getLevel(), log.getLevel(i));
+		}
+	}
+
+	@Test public void shouldNotCompressByDefault () {
+		Log log = new Log();
+		for (int i = 0; i < COUNT; i++) {
+			log.addEntry(text(i), LogLevel.DEFAULT);
+		}
+
+		assertEquals(0, log.getCompressedCount());
+		assertEquals(COUNT, log.getLogEntries().size);
+	}
+
+	@Test public void shouldPrintCompressedEntries () throws IOException {
+		fill();
+		File file = File.createTempFile("log", ".txt");
+		file.deleteOnExit();
+
+		assertTrue(log.printToFile(new FileHandle(file)));
+		String[] lines = new FileHandle(file).readString().split("\n");
+		assertEquals(COUNT, lines.length);
+	}
+
+	@Test public void shouldStayUsableAfterReleasingTheCodec () {
+		fill();
+		Log snapshot = log.snapshot();
+		assertEquals(text(3), snapshot.get(3).getText().toString());
+		snapshot.dispose();
+		log.dispose();
+
+		assertEquals(text(5000), log.get(5000).getText().toString());
+		assertEquals(text(3), snapshot.get(3).getText().toString());
+		log.addEntry("new", LogLevel.DEFAULT);
+		log.setCompressionEnabled(false);
+		assertEquals(text(7), log.get(7).getText().toString());
+	}
+
+	@Test public void shouldPackAgainAfterDispose () {
+		LogBlockCodec codec = new DeflaterLogBlockCodec();
+		byte[] data = text(4).getBytes();
+		byte[] packed = codec.pack(data, data.length);
+		codec.dispose();
+
+		byte[] out = new byte[data.length];
+		codec.unpack(packed, out, data.length);
+		assertEquals(text(4), new String(out));
+		codec.dispose();
+		codec.dispose();
+		assertEquals(packed.length, codec.pack(data, data.length).length);
+	}
+}
@@ -0,0 +1,103 @@
+package com.strongjoshua.console;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class LogFormatTest {
+	private HeadlessConsole console;
+	private boolean written;
+
+	@Before public void setUp () {
+		console = new HeadlessConsole();
+		console.setLoggingToSystem(false);
+	}
+
+	@After public void tearDown () {
+		console.dispose();
+	}
+
+	private String last () {
+		return console.log.get(console.log.size() - 1).getText().toString();
+	}
+
+	@Test public void shouldReplacePlaceholdersInOrder () {
+		console.log(LogLevel.DEFAULT, "{} has {} hp", "orc", 12);
+		assertEquals("orc has 12 hp", last());
+
+		console.log(LogLevel.DEFAULT, "{}{}{}", 1.5f, 'c', true);
+		assertEquals("1.5ctrue", last());
+
+		console.log(LogLevel.ERROR, "missing {} and {}", 7L);
+		assertEquals("missing 7 and {}", last());
+		assertEquals(LogLevel.ERROR, console.log.get(console.log.size() - 1).getLevel());
+	}
+
+	@Test public void shouldWriteMessagesOnlyWhenLogged () {
+		LogMessage message = new LogMessage() {
+			@Override public void write (StringBuilder out) {
+				written = true;
+				out.append("expensive");
+			}
+		};
+
+		console.setMinLogLevel(LogLevel.ERROR);
+		console.log(LogLevel.DEFAULT, message);
+		console.log(LogLevel.DEFAULT, "{}", new Object() {
+			@Override public String toString () {
+				written = true;
+				return "";
+			}
+		});
+		assertFalse(written);
+		assertEquals(0, console.log.size());
+
+		console.setMinLogLevel(LogLevel.DEFAULT);
+		console.log(LogLevel.DEFAULT, message);
+		assertEquals("expensive", last());
+	}
+
+	@Test public void shouldNotFormatBelowTheMinimumLevel () {
+		console.setMinLogLevel(LogLevel.ERROR);
+		console.log(LogLevel.DEFAULT, new LogMessage() {
+			@Override public void write (StringBuilder out) {
+				written = true;
+			}
+		});
+		console.log("plain", LogLevel.SUCCESS);
+
+		assertFalse(written);
+		assertEquals(0, console.log.size());
+	}
+
+	@Test public void shouldAllowLoggingWhileFormatting () {
+		console.log(LogLevel.DEFAULT, "outer {}", new Object() {
+			@Override public String toString () {
+				console.log(LogLevel.DEFAULT, "inner {}", 1);
+				return "done";
+			}
+		});
+
+		assertEquals(2, console.log.size());
+		assertEquals("inner 1", console.log.get(0).getText().toString());
+		assertEquals("outer done", last());
+	}
+
+	@Test public void shouldTreatNullArgumentsAsNone () {
+		console.log(LogLevel.DEFAULT, "{} left", (Object[])null);
+		assertEquals("{} left", last());
+	}
+
+	@Test public void shouldLogTheSameWayWhenDisabled () {
+		console.setDisabled(true);
+		int size = console.log.size();
+		console.log("plain");
+		console.log(LogLevel.DEFAULT, "formatted {}", 1);
+
+		assertEquals(size + 2, console.log.size());
+		assertEquals("formatted 1", last());
+	}
+}
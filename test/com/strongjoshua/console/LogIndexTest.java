@@ -0,0 +1,114 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.LongArray;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LogIndexTest {
+	private Log log;
+	private final LongArray found = new LongArray();
+
+	@Before public void setUp () {
+		log = new Log();
+	}
+
+	private void addNumbered (int count) {
+		for (int i = 0; i < count; i++) {
+			log.addEntry("entry " + i + (i % 3 == 0 ? " Error: disk full" : " ok") + (i % 5 == 0 ? " retry" : ""), LogLevel.DEFAULT);
+		}
+	}
+
+	private String findAsString (String query) {
+		log.find(query, found);
+		return found.toString();
+	}
+
+	@Test public void shouldFindWholeWordsIgnoringCase () {
+		log.setIndexCapacity(LogIndex.DEFAULT_MAX_POSTINGS);
+		log.addEntry("Loaded map forest.", LogLevel.DEFAULT);
+		log.addEntry("ERROR: texture forest_01 missing", LogLevel.ERROR);
+		log.addEntry("error while saving", LogLevel.ERROR);
+
+		assertEquals("[1, 2]", findAsString("error"));
+		assertEquals("[0, 1]", findAsString("FOREST"));
+		assertEquals("[1]", findAsString("01"));
+		assertEquals("[1]", findAsString("missing error"));
+		assertEquals("[]", findAsString("err"));
+		assertEquals("[]", findAsString("!!"));
+	}
+
+	@Test public void shouldMatchAScanOfTheLog () {
+		addNumbered(300);
+		String[] queries = {"error", "retry", "error retry", "entry 42", "full ok", "nothing"};
+		String[] scanned = new String[queries.length];
+		for (int i = 0; i < queries.length; i++) {
+			scanned[i] = findAsString(queries[i]);
+		}
+
+		log.setIndexCapacity(LogIndex.DEFAULT_MAX_POSTINGS);
+		for (int i = 0; i < queries.length; i++) {
+			assertEquals(queries[i], scanned[i], findAsString(queries[i]));
+		}
+		assertEquals("[42]", findAsString("entry 42"));
+	}
+
+	@Test public void shouldForgetEvictedEntries () {
+		log.setIndexCapacity(LogIndex.DEFAULT_MAX_POSTINGS);
+		log.setMaxEntries(10);
+		addNumbered(100);
+
+		assertEquals("[90, 93, 96, 99]", findAsString("error"));
+		int postings = log.getIndex().getPostingCount();
+		addNumbered(100);
+		assertEquals(postings, log.getIndex().getPostingCount());
+
+		log.setMaxEntries(4);
+		assertEquals("[196, 199]", findAsString("error"));
+
+		log.clear();
+		assertEquals(0, log.getIndex().getPostingCount());
+		assertEquals(0, log.getIndex().getTermCount());
+		assertEquals("[]", findAsString("error"));
+	}
+
+	@Test public void shouldStayWithinItsCapacity () {
+		log.setIndexCapacity(50);
+		addNumbered(100);
+		LogIndex index = log.getIndex();
+
+		assertTrue(index.getPostingCount() <= 50);
+		assertTrue(index.getFirstIndexed() > 0);
+		// older entries are scanned instead
+		log.find("error", found);
+		assertEquals(34, found.size);
+		assertEquals(0, found.first());
+		assertEquals(99, found.peek());
+
+		log.setIndexCapacity(0);
+		assertNull(log.getIndex());
+		assertEquals(34, log.find("error", found));
+	}
+
+	@Test public void shouldNotFindTypedCommands () {
+		HeadlessConsole console = new HeadlessConsole();
+		console.setLoggingToSystem(false);
+		console.setCommandExecutor(new CommandExecutor() {
+			public void find (String query) {
+				console.log(console.find(query) + " found");
+			}
+		});
+		console.setLogIndexEnabled(true);
+		console.log("spawned orc");
+		console.execCommand("find orc");
+		console.execCommand("find \"spawned orc\"");
+
+		assertEquals(1, console.find("orc"));
+		assertEquals("1 found", console.log.get(console.log.size() - 3).getText().toString());
+		assertEquals("1 found", console.log.get(console.log.size() - 1).getText().toString());
+		console.dispose();
+	}
+}
@@ -0,0 +1,89 @@
+package com.strongjoshua.console;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LogQueueTest {
+	@Test public void shouldReturnEntriesInOrder () {
+		LogQueue queue = new LogQueue(4);
+		queue.offer("1", LogLevel.DEFAULT);
+		queue.offer("2", LogLevel.ERROR);
+
+		assertEquals("1", queue.poll().getMessage());
+		LogQueue.Node second = queue.poll();
+		assertEquals("2", second.getMessage());
+		assertEquals(LogLevel.ERROR, second.getLevel());
+		assertNull(queue.poll());
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test public void shouldDropEntriesWhenFull () {
+		LogQueue queue = new LogQueue(2);
+
+		assertTrue(queue.offer("1", LogLevel.DEFAULT));
+		assertTrue(queue.offer("2", LogLevel.DEFAULT));
+		assertFalse(queue.offer("3", LogLevel.DEFAULT));
+		assertEquals(1, queue.takeDropped());
+		assertEquals(0, queue.takeDropped());
+
+		queue.poll();
+		assertTrue(queue.offer("4", LogLevel.DEFAULT));
+	}
+
+	@Test public void shouldCollectEntriesLoggedFromOtherThreads () throws InterruptedException {
+		final HeadlessConsole console = new HeadlessConsole();
+		console.setLoggingToSystem(false);
+		final int threads = 4, perThread = 1000;
+
+		Thread[] producers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			final int id = t;
+			producers[t] = new Thread(new Runnable() {
+				@Override public void run () {
+					for (int i = 0; i < perThread; i++) {
+						console.log(id + ":" + i);
+					}
+				}
+			});
+			producers[t].start();
+		}
+		for (Thread producer : producers) {
+			producer.join();
+		}
+		console.dispose();
+
+		assertEquals(threads * perThread, console.log.size());
+		int[] next = new int[threads];
+		for (int i = 0; i < console.log.size(); i++) {
+			String[] parts = console.log.get(i).toConsoleString().split(":");
+			int id = Integer.parseInt(parts[0]);
+			assertEquals(next[id]++, Integer.parseInt(parts[1]));
+		}
+	}
+
+	@Test public void shouldNeverDropEntriesOfTheOwningThread () throws InterruptedException {
+		// nothing drains the queue of this console until its owning thread logs
+		final AbstractConsole console = new AbstractConsole() {
+		};
+		Thread worker = new Thread(new Runnable() {
+			@Override public void run () {
+				for (int i = 0; i < 10000; i++) {
+					console.log("worker " + i);
+				}
+			}
+		});
+		worker.start();
+		worker.join();
+		console.log("owner");
+
+		assertTrue(console.logQueue.isEmpty());
+		LogEntry last = console.log.get(console.log.size() - 1);
+		assertEquals("owner", last.toConsoleString());
+		assertEquals("worker 8191", console.log.get(console.log.size() - 3).toConsoleString());
+		assertTrue(console.log.get(console.log.size() - 2).toConsoleString().startsWith("1808 log entries were dropped"));
+	}
+}
@@ -0,0 +1,158 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.files.FileHandle;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LogSpoolTest {
+	private FileHandle directory;
+
+	@Before public void setUp () throws IOException {
+		File temp = File.createTempFile("console-spool", "");
+		temp.delete();
+		directory = new FileHandle(temp);
+	}
+
+	@After public void tearDown () {
+		directory.deleteDirectory();
+	}
+
+	private List<String> readAll () {
+		final List<String> lines = new ArrayList<String>();
+		LogSpool.read(directory, new LogSink() {
+			@Override public void write (LogEntry entry) {
+				lines.add(entry.getLevel() + " " + entry.getText());
+			}
+
+			@Override public void flush () {
+			}
+
+			@Override public void dispose () {
+			}
+		});
+		return lines;
+	}
+
+	@Test public void shouldReadBackEverySpooledEntry () {
+		HeadlessConsole console = new HeadlessConsole();
+		console.setLoggingToSystem(false);
+		console.addLogSink(new LogSpool(directory, 4));
+		console.log("plain");
+		console.log("\u00fcn\u00efc\u00f6d\u00e9 \ud83d\ude00", LogLevel.SUCCESS);
+		console.log("", LogLevel.ERROR);
+		console.dispose();
+
+		List<String> lines = readAll();
+		assertEquals(3, lines.size());
+		assertEquals("DEFAULT plain", lines.get(0));
+		assertEquals("SUCCESS \u00fcn\u00efc\u00f6d\u00e9 \ud83d\ude00", lines.get(1));
+		assertEquals("ERROR ", lines.get(2));
+	}
+
+	@Test public void shouldRotateAndKeepOnlyTheNewestSegments () {
+		LogSpool spool = new LogSpool(directory, 1024, 3);
+		LogEntry entry = new LogEntry();
+		for (int i = 0; i < 1000; i++) {
+			entry.set("entry " + i, LogLevel.DEFAULT);
+			spool.write(entry);
+		}
+		spool.dispose();
+
+		assertEquals(3, directory.list().length);
+		List<String> lines = readAll();
+		assertTrue(lines.size() < 1000);
+		assertEquals("DEFAULT entry 999", lines.get(lines.size() - 1));
+		int first = Integer.parseInt(lines.get(0).substring("DEFAULT entry ".length()));
+		for (int i = 0; i < lines.size(); i++) {
+			assertEquals("DEFAULT entry " + (first + i), lines.get(i));
+		}
+	}
+
+	@Test public void shouldCutOffEntriesLongerThanASegment () {
+		LogSpool spool = new LogSpool(directory, 1024, 2);
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			text.append('x');
+		}
+		LogEntry entry = new LogEntry();
+		entry.set(text, LogLevel.DEFAULT);
+		spool.write(entry);
+		entry.set("after", LogLevel.DEFAULT);
+		spool.write(entry);
+		spool.dispose();
+
+		List<String> lines = readAll();
+		assertEquals(2, lines.size());
+		assertEquals("DEFAULT ".length() + 1024 - 13, lines.get(0).length());
+		assertEquals("DEFAULT after", lines.get(1));
+	}
+
+	@Test public void shouldContinueAfterExistingSegments () {
+		LogSpool spool = new LogSpool(directory, 1024, 5);
+		LogEntry entry = new LogEntry();
+		entry.set("first run", LogLevel.DEFAULT);
+		spool.write(entry);
+		spool.dispose();
+
+		spool = new LogSpool(directory, 1024, 5);
+		entry.set("second run", LogLevel.DEFAULT);
+		spool.write(entry);
+		spool.dispose();
+
+		List<String> lines = readAll();
+		assertEquals(2, lines.size());
+		assertEquals("DEFAULT first run", lines.get(0));
+		assertEquals("DEFAULT second run", lines.get(1));
+	}
+
+	@Test public void shouldIgnoreWritesAfterDispose () {
+		LogSpool spool = new LogSpool(directory, 1024, 2);
+		LogEntry entry = new LogEntry();
+		entry.set("before", LogLevel.DEFAULT);
+		spool.write(entry);
+		spool.dispose();
+
+		entry.set("after", LogLevel.DEFAULT);
+		spool.write(entry);
+		spool.flush();
+
+		List<String> lines = readAll();
+		assertEquals(1, lines.size());
+		assertEquals("DEFAULT before", lines.get(0));
+	}
+
+	@Test public void shouldStopAtPartlyWrittenEntries () throws IOException {
+		LogSpool spool = new LogSpool(directory, 1024, 2);
+		LogEntry entry = new LogEntry();
+		for (String text : new String[] {"ok", "\u65e5\u672c", "lost"}) {
+			entry.set(text, LogLevel.DEFAULT);
+			spool.write(entry);
+		}
+		spool.dispose();
+		File segment = directory.list()[0].file();
+
+		// the second entry, of 13 + 6 bytes, now ends within its last character
+		RandomAccessFile file = new RandomAccessFile(segment, "rw");
+		file.seek(15);
+		file.writeInt(18);
+		file.close();
+		assertEquals(Collections.singletonList("DEFAULT ok"), readAll());
+
+		// and now the file ends within the entry
+		file = new RandomAccessFile(segment, "rw");
+		file.setLength(30);
+		file.close();
+		assertEquals(Collections.singletonList("DEFAULT ok"), readAll());
+	}
+}
@@ -0,0 +1,131 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.files.FileHandle;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LogTest {
+	private Log log;
+
+	@Before public void setUp () {
+		log = new Log();
+	}
+
+	@Test public void shouldOnlyKeepTheNewestEntriesWhenCapped () {
+		log.setMaxEntries(2);
+		log.addEntry("1", LogLevel.DEFAULT);
+		log.addEntry("2", LogLevel.DEFAULT);
+		log.addEntry("3", LogLevel.ERROR);
+
+		assertEquals(2, log.size());
+		assertEquals("2", log.get(0).toConsoleString());
+		assertEquals("3", log.get(1).toConsoleString());
+	}
+
+	@Test public void shouldDropEntriesBelowTheMinimumLevel () {
+		log.setMinLevel(LogLevel.COMMAND);
+		log.addEntry("debug", LogLevel.DEFAULT);
+		log.addEntry("done", LogLevel.SUCCESS);
+		log.addEntry("help", LogLevel.COMMAND);
+		log.addEntry("failed", LogLevel.ERROR);
+
+		assertEquals(2, log.size());
+		assertEquals(2, log.getAddedCount());
+		assertEquals("failed", log.get(1).getText().toString());
+	}
+
+	@Test public void shouldReuseEvictedEntries () {
+		log.setMaxEntries(1);
+		log.addEntry("first", LogLevel.DEFAULT);
+		LogEntry first = log.get(0);
+		Log snapshot = log.snapshot();
+		log.addEntry("second", LogLevel.DEFAULT);
+		log.addEntry("third", LogLevel.ERROR);
+
+		assertSame(first, log.get(0));
+		assertEquals("third", log.get(0).getText().toString());
+		assertEquals(LogLevel.ERROR, log.get(0).getLevel());
+		assertEquals("first", snapshot.get(0).getText().toString());
+	}
+
+	@Test public void shouldWriteEveryEntryOnItsOwnLine () throws IOException {
+		for (int i = 0; i < 5000; i++) {
+			log.addEntry("entry " + i, i % 2 == 0 ? LogLevel.DEFAULT : LogLevel.ERROR);
+		}
+		File file = File.createTempFile("console", ".log");
+		file.deleteOnExit();
+		FileHandle fh = new FileHandle(file);
+
+		assertTrue(log.printToFile(fh));
+		String[] lines = fh.readString().split("\n");
+		assertEquals(5000, lines.length);
+		for (int i = 0; i < lines.length; i++) {
+			assertEquals(log.get(i).toString(), lines[i]);
+		}
+	}
+
+	@Test public void shouldNotCollapseRepeatedEntriesByDefault () {
+		log.addEntry("texture missing", LogLevel.ERROR);
+		log.addEntry("texture missing", LogLevel.ERROR);
+
+		assertEquals(2, log.size());
+		assertEquals(1, log.get(1).getRepeatCount());
+	}
+
+	@Test public void shouldCollapseRepeatedEntries () {
+		log.setCollapseRepeats(true);
+		log.addEntry("texture missing", LogLevel.ERROR);
+		log.addEntry("texture missing", LogLevel.ERROR);
+		log.addEntry("texture missing", LogLevel.ERROR);
+		log.addEntry("texture missing", LogLevel.DEFAULT);
+		log.addEntry("texture missing", LogLevel.DEFAULT);
+
+		assertEquals(2, log.size());
+		assertEquals(2, log.getAddedCount());
+		assertEquals(3, log.get(0).getRepeatCount());
+		assertEquals("texture missing (x3)", log.get(0).toConsoleString());
+		assertEquals("texture missing (x2)", log.get(1).toConsoleString());
+
+		log.setCollapseRepeats(false);
+		log.addEntry("texture missing", LogLevel.DEFAULT);
+		assertEquals(3, log.size());
+		assertEquals(1, log.get(2).getRepeatCount());
+	}
+
+	@Test public void shouldExpandRepeatsOnRequest () throws IOException {
+		log.setCollapseRepeats(true);
+		log.addEntry("once", LogLevel.DEFAULT);
+		for (int i = 0; i < 3; i++) {
+			log.addEntry("again", LogLevel.ERROR);
+		}
+		File file = File.createTempFile("console", ".log");
+		file.deleteOnExit();
+		FileHandle fh = new FileHandle(file);
+
+		assertTrue(log.printToFile(fh));
+		String[] lines = fh.readString().split("\n");
+		assertEquals(2, lines.length);
+		assertTrue(lines[1].endsWith("again (x3)"));
+
+		assertTrue(log.printToFile(fh, true));
+		lines = fh.readString().split("\n");
+		assertEquals(4, lines.length);
+		LogEntry again = log.get(1);
+		// the repeats are stamped with the range they were logged in, not all with the first time
+		again.setLastTimeStamp(again.getTimeStamp() + 250);
+		assertTrue(log.printToFile(fh, true));
+		lines = fh.readString().split("\n");
+		assertEquals(log.get(0).getTimeStamp() + ": " + LogLevel.DEFAULT.getIdentifier() + "once", lines[0]);
+		for (int i = 1; i < 4; i++) {
+			assertEquals(again.getTimeStamp() + "-" + (again.getTimeStamp() + 250) + ": " + LogLevel.ERROR.getIdentifier() + "again",
+				lines[i]);
+		}
+	}
+}
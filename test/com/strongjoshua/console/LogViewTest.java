@@ -0,0 +1,225 @@
+package com.strongjoshua.console;
+
+import com.strongjoshua.console.LogView.RowIndex;
+import com.strongjoshua.console.LogView.VisibleRows;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LogViewTest {
+	private static final double DELTA = 1e-6;
+
+	private RowIndex index;
+
+	@Before public void setUp () {
+		index = new RowIndex();
+	}
+
+	@Test public void shouldStackRowsOfALevel () {
+		index.add(0, 10);
+		index.add(2, 20);
+		index.add(5, 30);
+
+		assertEquals(60, index.getTotal(), DELTA);
+		assertEquals(0, index.getHeightBefore(0), DELTA);
+		assertEquals(10, index.getHeightBefore(1), DELTA);
+		assertEquals(30, index.getHeightBefore(5), DELTA);
+		assertEquals(60, index.getHeightBefore(6), DELTA);
+		assertEquals(2, index.indexOf(3));
+	}
+
+	@Test public void shouldGrowPastItsInitialCapacity () {
+		for (int i = 0; i < 100; i++) {
+			index.add(i, i);
+		}
+
+		assertEquals(4950, index.getTotal(), DELTA);
+		assertEquals(45, index.getHeightBefore(10), DELTA);
+	}
+
+	@Test public void shouldEvictRowsAndCompactThem () {
+		for (int i = 0; i < 10; i++) {
+			index.add(i, 1);
+		}
+
+		index.evictBefore(3);
+		assertEquals(7, index.getTotal(), DELTA);
+		assertEquals(2, index.getHeightBefore(5), DELTA);
+
+		// more than half of the rows are evicted, so the arrays are compacted
+		index.evictBefore(6);
+		assertEquals(0, index.indexOf(0));
+		assertEquals(4, index.getTotal(), DELTA);
+		assertEquals(2, index.getHeightBefore(8), DELTA);
+
+		index.add(10, 5);
+		assertEquals(9, index.getTotal(), DELTA);
+		assertEquals(4, index.getHeightBefore(10), DELTA);
+	}
+
+	@Test public void shouldUpdateTheHeightOfTheNewestRow () {
+		index.add(0, 10);
+		index.addEstimate(1, 10);
+		assertTrue(index.isEstimated(1));
+
+		index.setLastHeight(25);
+		assertFalse(index.isEstimated(1));
+		assertEquals(35, index.getTotal(), DELTA);
+	}
+
+	@Test public void shouldEstimateWrappedRowsForANewWidth () {
+		index.add(0, 10);
+		index.add(1, 30);
+		index.add(2, 20);
+
+		// half as wide, so wrapped rows take twice as many lines
+		index.estimate(2, 10);
+
+		assertEquals(10, index.getHeightBefore(1), DELTA);
+		assertEquals(70, index.getHeightBefore(2), DELTA);
+		assertEquals(110, index.getTotal(), DELTA);
+		for (int row = 0; row < 3; row++) {
+			assertTrue(index.isEstimated(row));
+		}
+
+		// twice as wide again, every row fits on fewer lines
+		index.estimate(0.5f, 10);
+		assertEquals(10 + 30 + 20, index.getTotal(), DELTA);
+	}
+
+	@Test public void shouldApplyMeasuredHeightsInOnePass () {
+		for (int i = 0; i < 5; i++) {
+			index.addEstimate(i, 10);
+		}
+
+		index.setHeight(1, 25);
+		index.setHeight(3, 5);
+		assertEquals(50, index.getTotal(), DELTA);
+		index.applyHeights();
+
+		assertEquals(60, index.getTotal(), DELTA);
+		assertEquals(35, index.getHeightBefore(2), DELTA);
+		assertEquals(50, index.getHeightBefore(4), DELTA);
+		assertTrue(index.isEstimated(0));
+		assertFalse(index.isEstimated(1));
+		assertTrue(index.isEstimated(2));
+		assertFalse(index.isEstimated(3));
+
+		// the rows below keep their offsets if the height did not change
+		index.setHeight(0, 10);
+		index.applyHeights();
+		assertEquals(60, index.getTotal(), DELTA);
+		assertFalse(index.isEstimated(0));
+	}
+
+	@Test public void shouldApplyHeightsAfterEviction () {
+		for (int i = 0; i < 6; i++) {
+			index.addEstimate(i, 10);
+		}
+		index.evictBefore(2);
+
+		index.setHeight(index.indexOf(3), 40);
+		index.applyHeights();
+
+		assertEquals(70, index.getTotal(), DELTA);
+		assertEquals(50, index.getHeightBefore(4), DELTA);
+	}
+
+	@Test public void shouldWalkTheRowsOfSeveralLevelsInOrder () {
+		RowIndex errors = new RowIndex();
+		index.add(0, 1);
+		index.add(2, 2);
+		index.add(5, 5);
+		errors.add(1, 10);
+		errors.add(3, 30);
+		errors.add(4, 40);
+		VisibleRows rows = new VisibleRows(2);
+
+		rows.start(new RowIndex[] {index, errors}, 2);
+
+		assertEquals(2, rows.next(5));
+		assertSame(index, rows.getIndex());
+		assertEquals(1, rows.getPosition());
+		assertEquals(2, rows.getHeight(), DELTA);
+		assertEquals(3, rows.next(5));
+		assertSame(errors, rows.getIndex());
+		assertEquals(30, rows.getHeight(), DELTA);
+		assertEquals(4, rows.next(5));
+		assertEquals(-1, rows.next(5));
+
+		// the positions are kept, so a later end continues where the walk stopped
+		assertEquals(5, rows.next(6));
+		assertEquals(-1, rows.next(6));
+	}
+
+	@Test public void shouldOnlyCountTheShownLevels () {
+		RowIndex errors = new RowIndex();
+		index.add(0, 1);
+		errors.add(1, 10);
+		index.add(2, 2);
+		errors.add(3, 30);
+		RowIndex[] all = {index, errors};
+		RowIndex[] withoutErrors = {index};
+
+		assertEquals(11, LogView.getOffset(all, 2), DELTA);
+		assertEquals(1, LogView.getOffset(withoutErrors, 2), DELTA);
+		assertEquals(43, LogView.getOffset(all, 4), DELTA);
+		assertEquals(3, LogView.getOffset(withoutErrors, 4), DELTA);
+
+		VisibleRows rows = new VisibleRows(2);
+		rows.start(withoutErrors, 0);
+		assertEquals(0, rows.next(4));
+		assertEquals(2, rows.next(4));
+		assertEquals(-1, rows.next(4));
+	}
+
+	@Test public void shouldFindTheRowAtAnOffset () {
+		RowIndex errors = new RowIndex();
+		index.add(0, 10);
+		errors.add(1, 20);
+		index.add(2, 10);
+		RowIndex[] all = {index, errors};
+
+		assertEquals(0, LogView.findRow(all, 0, 3, 0));
+		assertEquals(0, LogView.findRow(all, 0, 3, 9));
+		assertEquals(1, LogView.findRow(all, 0, 3, 10));
+		assertEquals(1, LogView.findRow(all, 0, 3, 29));
+		assertEquals(2, LogView.findRow(all, 0, 3, 30));
+		// clamped to the rows
+		assertEquals(2, LogView.findRow(all, 0, 3, 1000));
+		assertEquals(0, LogView.findRow(all, 0, 3, -5));
+		assertEquals(7, LogView.findRow(all, 7, 7, 10));
+
+		// hidden rows take no space, so the offset falls into the next shown row
+		RowIndex[] withoutErrors = {index};
+		assertEquals(2, LogView.findRow(withoutErrors, 0, 3, 10));
+	}
+
+	@Test public void shouldFollowAppendsAndEvictions () {
+		RowIndex[] levels = {new RowIndex(), new RowIndex(), new RowIndex()};
+		float[] heights = new float[1000];
+		int kept = 100;
+		for (int seq = 0; seq < heights.length; seq++) {
+			heights[seq] = 1 + seq % 5;
+			levels[seq % 3].add(seq, heights[seq]);
+			int oldest = Math.max(0, seq + 1 - kept);
+			for (RowIndex level : levels) {
+				level.evictBefore(oldest);
+			}
+
+			if (seq % 97 == 0) {
+				double expected = 0;
+				for (int s = oldest; s <= seq; s++) {
+					assertEquals(expected, LogView.getOffset(levels, s), DELTA);
+					assertEquals(s, LogView.findRow(levels, oldest, seq + 1, (float)expected));
+					expected += heights[s];
+				}
+				assertEquals(expected, LogView.getOffset(levels, seq + 1), DELTA);
+			}
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Method;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MethodHandleInvokerTest {
+	public static class Target {
+		public int add (int a, int b) {
+			return a + b;
+		}
+
+		public void fail () throws Exception {
+			throw new Exception("failed");
+		}
+
+		public void overflow () {
+			throw new StackOverflowError();
+		}
+	}
+
+	private static CommandInvoker create (String name, Class<?>... types) throws ReflectionException {
+		Method method = ClassReflection.getMethod(Target.class, name, types);
+		CommandInvoker invoker = new MethodHandleInvoker.Factory().create(method);
+		assertTrue(invoker instanceof MethodHandleInvoker);
+		return invoker;
+	}
+
+	@Test public void shouldInvokeTheMethod () throws ReflectionException {
+		assertEquals(5, create("add", int.class, int.class).invoke(new Target(), new Object[] {2, 3}));
+	}
+
+	@Test public void shouldWrapExceptions () throws ReflectionException {
+		try {
+			create("fail").invoke(new Target(), new Object[0]);
+			fail();
+		} catch (ReflectionException e) {
+			assertEquals("failed", e.getCause().getMessage());
+		}
+	}
+
+	@Test(expected = StackOverflowError.class) public void shouldRethrowErrors () throws ReflectionException {
+		create("overflow").invoke(new Target(), new Object[0]);
+	}
+}
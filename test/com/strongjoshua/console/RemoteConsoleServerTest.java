@@ -0,0 +1,173 @@
+package com.strongjoshua.console;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RemoteConsoleServerTest {
+	private HeadlessConsole console;
+	private RemoteConsoleServer server;
+
+	@Before public void setUp () {
+		console = new HeadlessConsole();
+		console.setLoggingToSystem(false);
+		console.setCommandExecutor(new CommandExecutor() {
+			public void echo (String text) {
+				console.log(text);
+			}
+
+			public void fail () {
+				console.log("failed", LogLevel.ERROR);
+			}
+		});
+		server = new RemoteConsoleServer(console, 0);
+	}
+
+	@After public void tearDown () {
+		server.dispose();
+		console.dispose();
+	}
+
+	private Socket connect () throws IOException {
+		Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+		socket.setSoTimeout(5000);
+		return socket;
+	}
+
+	private static void send (Socket socket, String text) throws IOException {
+		OutputStream out = socket.getOutputStream();
+		out.write(text.getBytes("UTF-8"));
+		out.flush();
+	}
+
+	private void awaitCommands (int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (count > 0 && System.currentTimeMillis() < deadline) {
+			count -= server.executeQueuedCommands();
+			Thread.sleep(1);
+		}
+		assertEquals(0, count);
+	}
+
+	@Test public void shouldExecuteLinesAndReplyWithTheirOutput () throws Exception {
+		Socket socket = connect();
+		send(socket, "echo hello\r\nfail\n\n   \necho \"split");
+		awaitCommands(2);
+		send(socket, " line\"\n");
+		awaitCommands(1);
+
+		BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+		assertEquals("echo hello", in.readLine());
+		assertEquals("hello", in.readLine());
+		assertEquals("fail", in.readLine());
+		assertEquals("! failed", in.readLine());
+		assertEquals("echo \"split line\"", in.readLine());
+		assertEquals("split line", in.readLine());
+		socket.close();
+	}
+
+	@Test public void shouldReplyOnlyToTheSendingClient () throws Exception {
+		Socket first = connect();
+		Socket second = connect();
+		send(first, "echo one\n");
+		awaitCommands(1);
+		send(second, "echo two\n");
+		awaitCommands(1);
+		console.log("not a command");
+
+		BufferedReader firstIn = new BufferedReader(new InputStreamReader(first.getInputStream(), "UTF-8"));
+		BufferedReader secondIn = new BufferedReader(new InputStreamReader(second.getInputStream(), "UTF-8"));
+		assertEquals("echo one", firstIn.readLine());
+		assertEquals("one", firstIn.readLine());
+		assertEquals("echo two", secondIn.readLine());
+		assertEquals("two", secondIn.readLine());
+
+		first.close();
+		send(second, "echo three\n");
+		awaitCommands(1);
+		assertEquals("echo three", secondIn.readLine());
+		assertEquals("three", secondIn.readLine());
+		second.close();
+	}
+
+	@Test public void shouldReplyWhileOtherThreadsLog () throws Exception {
+		final AtomicBoolean logging = new AtomicBoolean(true);
+		Thread worker = new Thread(new Runnable() {
+			@Override public void run () {
+				while (logging.get()) {
+					console.log("worker");
+				}
+			}
+		});
+		worker.start();
+		try {
+			Socket socket = connect();
+			BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+			for (int i = 0; i < 20; i++) {
+				send(socket, "echo " + i + "\n");
+				awaitCommands(1);
+				assertEquals("echo " + i, in.readLine());
+				assertEquals(String.valueOf(i), in.readLine());
+			}
+			socket.close();
+		} finally {
+			logging.set(false);
+			worker.join();
+		}
+	}
+
+	@Test public void shouldCountCommandsWaitingForLaterFrames () throws Exception {
+		console.setCommandFrameBudget(1);
+		Socket socket = connect();
+		StringBuilder lines = new StringBuilder();
+		for (int i = 0; i < 40; i++) {
+			lines.append("echo ").append(i).append('\n');
+		}
+		send(socket, lines.toString());
+
+		BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+		long deadline = System.currentTimeMillis() + 5000;
+		int received = 0;
+		while (received < 40 && System.currentTimeMillis() < deadline) {
+			server.executeQueuedCommands();
+			// only one command is handed over until the console ran it
+			assertTrue(console.getQueuedCommandCount() <= 1);
+			console.draw();
+			while (received < 40 && in.ready()) {
+				assertEquals("echo " + received, in.readLine());
+				assertEquals(String.valueOf(received), in.readLine());
+				received++;
+			}
+			Thread.sleep(1);
+		}
+		assertEquals(40, received);
+		socket.close();
+	}
+
+	@Test public void shouldDisconnectClientsSendingOverlongLines () throws Exception {
+		Socket socket = connect();
+		StringBuilder line = new StringBuilder("echo ");
+		for (int i = 0; i < 5000; i++) {
+			line.append('x');
+		}
+		send(socket, line.toString());
+
+		BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+		assertEquals("! Line too long, at most 4096 bytes are allowed.", in.readLine());
+		assertNull(in.readLine());
+		assertEquals(0, server.executeQueuedCommands());
+		socket.close();
+	}
+}
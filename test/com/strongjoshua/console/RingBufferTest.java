@@ -0,0 +1,88 @@
+package com.strongjoshua.console;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class RingBufferTest {
+	private RingBuffer<Integer> buffer;
+
+	@Before public void setUp () {
+		buffer = new RingBuffer<Integer>(3);
+	}
+
+	@Test public void shouldEvictTheOldestItemOnceFull () {
+		assertNull(buffer.add(1));
+		assertNull(buffer.add(2));
+		assertNull(buffer.add(3));
+
+		assertEquals(Integer.valueOf(1), buffer.add(4));
+		assertEquals(3, buffer.size);
+		assertEquals(Integer.valueOf(2), buffer.first());
+		assertEquals(Integer.valueOf(4), buffer.last());
+	}
+
+	@Test public void shouldKeepIndicesOrderedAfterWrapping () {
+		for (int i = 0; i < 10; i++) {
+			buffer.add(i);
+		}
+
+		assertEquals(Integer.valueOf(7), buffer.get(0));
+		assertEquals(Integer.valueOf(8), buffer.get(1));
+		assertEquals(Integer.valueOf(9), buffer.get(2));
+
+		int expected = 7;
+		for (Integer i : buffer) {
+			assertEquals(Integer.valueOf(expected++), i);
+		}
+		assertEquals(10, expected);
+	}
+
+	@Test public void shouldGrowWithoutBoundWhenUnlimited () {
+		buffer = new RingBuffer<Integer>(RingBuffer.UNLIMITED);
+		for (int i = 0; i < 1000; i++) {
+			assertNull(buffer.add(i));
+		}
+
+		assertEquals(1000, buffer.size);
+		assertEquals(Integer.valueOf(0), buffer.first());
+		assertEquals(Integer.valueOf(999), buffer.last());
+	}
+
+	@Test public void shouldDropTheOldestItemsWhenShrinking () {
+		for (int i = 0; i < 5; i++) {
+			buffer.add(i);
+		}
+		buffer.setMaxSize(2);
+
+		assertEquals(2, buffer.size);
+		assertEquals(Integer.valueOf(3), buffer.get(0));
+		assertEquals(Integer.valueOf(4), buffer.get(1));
+	}
+
+	@Test public void shouldKeepItemsWhenGrowingAfterWrapping () {
+		for (int i = 0; i < 5; i++) {
+			buffer.add(i);
+		}
+		buffer.setMaxSize(RingBuffer.UNLIMITED);
+		buffer.add(5);
+		buffer.add(6);
+
+		assertEquals(5, buffer.size);
+		for (int i = 0; i < 5; i++) {
+			assertEquals(Integer.valueOf(i + 2), buffer.get(i));
+		}
+	}
+
+	@Test public void shouldBeEmptyAfterClear () {
+		buffer.add(1);
+		buffer.add(2);
+		buffer.clear();
+
+		assertEquals(0, buffer.size);
+		buffer.add(3);
+		assertEquals(Integer.valueOf(3), buffer.first());
+	}
+}